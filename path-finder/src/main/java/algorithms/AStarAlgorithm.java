@@ -6,128 +6,148 @@ import java.util.Collections;
 import java.util.List;
 
 // external dependencies
+import logs.LogLevel;
 import logs.Logger;
+import logs.Tracer;
+import maze.MazeGrid;
 import org.javatuples.Pair;
 
-public class AStarAlgorithm {
+public class AStarAlgorithm implements PathFinder {
 
-    private static class Cell {
+    private SearchSpace space;
 
-        private int sourceCost;
-        private final int targetCost;
-        private final int totalCost;
+    private int expandedCells;
 
-        private final int X;
-        private final int Y;
+    // expanded cells of the current search, handed to the tracer in one go when it ends
+    private int[] tracedCells = new int[0];
 
-        private Cell previousCell;
-
-        public Cell(int x, int y, int sourceCost, int targetCost) {
-            this.sourceCost = sourceCost;
-            this.targetCost = targetCost;
-            this.totalCost = sourceCost + targetCost;
-            this.previousCell = null;
-            this.X = x;
-            this.Y = y;
-        }
+    private final Logger logger;
+    private final Tracer tracer;
 
-        public Pair<Integer, Integer> getCoordinates() {
-            return Pair.with(this.X, this.Y);
-        }
+    public AStarAlgorithm() {
+        this.logger = Logger.getInstance();
+        this.tracer = Tracer.getInstance();
+    }
 
+    public AStarAlgorithm(SearchSpace space) {
+        this();
+        this.space = space;
     }
 
-    private final int sourceX;
-    private final int sourceY;
+    // GETTERS
+
+    public SearchSpace getSearchSpace() {
+        return space;
+    }
 
-    private final int targetX;
-    private final int targetY;
+    @Override
+    public int getExpandedCells() {
+        return expandedCells;
+    }
 
-    private final List<Cell> walkableCells, chosenCells;
-    private final List<Cell> clearCellCache = Collections.emptyList();
+    // OTHERS
 
-    private final Logger logger;
+    @Override
+    public List<Pair<Integer, Integer>> findPath(MazeGrid maze, int[] source, int[] target) {
 
-    private final int[][] neighbourCellsCoordinates = new int[][] {
-            {0,+1}, {+1,0}, {-1,0}, {0,-1},
-            {+1,+1},{-1,-1}, {-1,+1}, {+1,-1}
-    };
-
-    public AStarAlgorithm(int[] source, int[] target) {
-        this.sourceX = source[0];
-        this.sourceY = source[1];
-        this.targetX = target[0];
-        this.targetY = target[1];
-        this.walkableCells = new ArrayList<>();
-        this.chosenCells = new ArrayList<>();
-        this.logger = Logger.getInstance();
-    }
+        int mazeSize = maze.size();
 
-    public void findPath(char[][] maze, int mazeSize) {
+        // reuse node state across queries on mazes of the same size
+        if (space == null || space.getMazeSize() != mazeSize) {
+            space = new SearchSpace(mazeSize);
+        }
+        space.reset();
+        expandedCells = 0;
 
-        // create source and target cells
-        Cell sourceCell = createCell(this.sourceX,this.sourceY);
-        Cell targetCell = createCell(this.targetX, this.targetY);
-        Cell currCell = null;
+        OpenSet walkableCells = space.getWalkableCells();
+        int targetX = target[0];
+        int targetY = target[1];
+        int targetCell = space.indexOf(targetX, targetY);
 
-        // source is a free cell
-        this.walkableCells.add(sourceCell);
+        // source is a free cell reached at no cost
+        int sourceCell = space.indexOf(source[0], source[1]);
+        int sourceTargetCost = heuristicFunction(source[0], source[1], targetX, targetY);
+        space.visit(sourceCell, 0, SearchSpace.NO_CELL);
+        walkableCells.push(sourceCell, sourceTargetCost, sourceTargetCost);
 
         System.out.print("\n\n//// A* algorithm Execution ////");
         logger.log("\n\n//// A* algorithm Execution ////");
 
+        // both checked once, so the loop builds nothing when they are off
+        boolean logCells = logger.isEnabled(LogLevel.TRACE);
+        boolean tracing = tracer.isEnabled();
+
         // while there are free cells to walk through
         while (!walkableCells.isEmpty()) {
 
-            // get best walkable cell using first as pivot
-            currCell = getBestFreeCell(this.walkableCells.get(0));
+            // get best walkable cell, ordered by total cost then target cost
+            int currCell = walkableCells.poll();
 
-            if (currCell.getCoordinates().equals(targetCell.getCoordinates())) {
-                break;
+            if (currCell == targetCell) {
+                if (tracing) tracer.traceSearch(sourceCell, targetCell, tracedCells, expandedCells);
+                return retrievePath(currCell);
             }
 
-            logger.log("\n\nCurrent cell= " + currCell.getCoordinates());
+            int currX = space.rowOf(currCell);
+            int currY = space.columnOf(currCell);
+            int currSourceCost = space.getSourceCost(currCell);
 
-            // choose the best cell to be part of the path
-            walkableCells.remove(currCell);
-            chosenCells.add(currCell);
-
-            // get current cell's neighbours
-            List<Cell> neighbourCells = getCellNeighbours(currCell, mazeSize);
+            if (logCells) {
+                logger.log(LogLevel.TRACE, "\n\nCurrent cell= [" + currX + ", " + currY + "]");
+            }
 
-            // for every neighbour
-            for (Cell neighbour: neighbourCells) {
+            // choose the best cell to be part of the path
+            space.choose(currCell);
+            if (tracing) traceExpansion(currCell);
+            expandedCells++;
+
+            // for each cell around the current
+            for (int neighbour = 0; neighbour < SearchSpace.NEIGHBOUR_X.length; neighbour++) {
+                int neighbourX = currX + SearchSpace.NEIGHBOUR_X[neighbour];
+                int neighbourY = currY + SearchSpace.NEIGHBOUR_Y[neighbour];
+
+                // check neighbour boundaries
+                if (neighbourX < 0 || neighbourX >= mazeSize || neighbourY < 0 || neighbourY >= mazeSize) {
+                    continue;
+                }
 
-                // if it wasn't already chosen
-                if (!contains(chosenCells,neighbour)){
-                    char mazeObjectAtNeighbour = maze[neighbour.X][neighbour.Y];
+                int neighbourCell = space.indexOf(neighbourX, neighbourY);
 
-                    // if its walkable
-                    if ( mazeObjectAtNeighbour == '0' || mazeObjectAtNeighbour == 'S') {
-                        int newNeighbourSourceCost = currCell.sourceCost + heuristicFunction(currCell.X, currCell.Y, neighbour.X, neighbour.Y);
+                // if it wasn't already chosen and its walkable
+                if (space.isChosen(neighbourCell) || !maze.isWalkable(neighbourCell)) {
+                    continue;
+                }
 
-                        // if path to current neighbour is shorter or neighbour is not considered walkable yet
-                        if (newNeighbourSourceCost < neighbour.sourceCost || !this.walkableCells.contains(neighbour)) {
+                int newNeighbourSourceCost = currSourceCost + heuristicFunction(currX, currY, neighbourX, neighbourY);
 
-                            // consider current neighbour in solution
-                            neighbour.sourceCost = newNeighbourSourceCost;
-                            neighbour.previousCell = currCell;
+                // if path to current neighbour is shorter or neighbour is not considered walkable yet
+                if (!space.isVisited(neighbourCell) || newNeighbourSourceCost < space.getSourceCost(neighbourCell)) {
+                    int neighbourTargetCost = heuristicFunction(neighbourX, neighbourY, targetX, targetY);
 
-                            // if not considered as walkable, do it
-                            if (!isAlreadyWalkable(neighbour)) {
-                                this.walkableCells.add(neighbour);
-                            }
-                        }
-                    }
+                    // consider current neighbour in solution
+                    space.visit(neighbourCell, newNeighbourSourceCost, currCell);
+                    walkableCells.push(neighbourCell, newNeighbourSourceCost + neighbourTargetCost, neighbourTargetCost);
                 }
             }
-            neighbourCells.removeAll(clearCellCache);
         }
-        // return path
-        retrievePath(currCell);
+
+        if (tracing) tracer.traceSearch(sourceCell, targetCell, tracedCells, expandedCells);
+
+        System.out.print("\n\nDid not found path :(\n\n");
+        logger.log("\n\nDid not found path :(\n\n");
+        return Collections.emptyList();
+    }
+
+    private void traceExpansion(int cell) {
+        if (expandedCells == tracedCells.length) {
+            int[] grownCells = new int[Math.max(1024, 2 * tracedCells.length)];
+            System.arraycopy(tracedCells, 0, grownCells, 0, expandedCells);
+            tracedCells = grownCells;
+        }
+        tracedCells[expandedCells] = cell;
     }
 
-    public int heuristicFunction(int fromX, int fromY, int toX, int toY) {
+    public static int heuristicFunction(int fromX, int fromY, int toX, int toY) {
         int dstX = Math.abs(fromX - toX);
         int dstY = Math.abs(fromY - toY);
 
@@ -138,96 +158,15 @@ public class AStarAlgorithm {
         }
     }
 
-    public boolean contains(List<Cell> chosen, Cell neighbour) {
-        boolean contains = false;
+    public List<Pair<Integer, Integer>> retrievePath(int cell) {
+        List<Pair<Integer, Integer>> bestMazePath = new ArrayList<>();
 
-        for(int cell=0; cell<chosen.size(); cell++){
-            if(chosen.get(cell).getCoordinates().equals(neighbour.getCoordinates())){
-                contains = true;
-                break;
-            }
-        }
-        return contains;
-    }
-
-    public Cell getBestFreeCell(Cell pivotCell) {
-        // for each free cell
-        for (Cell currCell: this.walkableCells) {
-
-            // if current walkable cell is less distant then pivot
-            if (currCell.totalCost <= pivotCell.totalCost) {
-
-                // and its closer to the target
-                if (currCell.targetCost < pivotCell.targetCost) {
-
-                    // set it as the pivot
-                    pivotCell = currCell;
-                }
-            }
-        }
-        return pivotCell;
-    }
-
-    public boolean isAlreadyWalkable(Cell unknownCell) {
-        for (Cell cell : this.walkableCells) {
-            if (cell.getCoordinates().equals(unknownCell.getCoordinates())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    public Cell createCell(int x, int y) {
-        // calculate heuristics
-        int distSource = heuristicFunction(x, y, this.sourceX, this.sourceY);
-        int distTarget = heuristicFunction(x, y, this.targetX, this.targetY);
-
-        // return cell object
-        return new Cell(x, y, distSource, distTarget);
-    }
-
-    public List<Cell> getCellNeighbours(Cell cell, int mazeSize) {
-        int neighbourX;
-        int neighbourY;
-
-        List<Cell> neighbours = new ArrayList<>();
-
-        // for each cell around the current
-        for (int[] neighbourCoordinates: this.neighbourCellsCoordinates) {
-            neighbourX = cell.X + neighbourCoordinates[0];
-            neighbourY = cell.Y + neighbourCoordinates[1];
-
-            // check neighbour boundaries and create neighbour using heuristic function
-            if ((neighbourX >= 0 && neighbourX < mazeSize) && (neighbourY >= 0 && neighbourY < mazeSize)) {
-                Cell neighbour = createCell(neighbourX, neighbourY);
-                neighbours.add(neighbour);
-            }
-        }
-
-        // return valid neighbours
-        return neighbours;
-    }
-
-    public void retrievePath(Cell cell) {
-        List<Cell> bestMazePath = new ArrayList<>();
-        bestMazePath.add(cell);
-
-        while (cell.previousCell != null) {
-            cell = cell.previousCell;
-            bestMazePath.add(cell);
+        while (cell != SearchSpace.NO_CELL) {
+            bestMazePath.add(Pair.with(space.rowOf(cell), space.columnOf(cell)));
+            cell = space.getPreviousCell(cell);
         }
         Collections.reverse(bestMazePath);
-        showCells("Path", bestMazePath);
-    }
 
-    public void showCells(String prefix, List<Cell> cells) {
-        System.out.print("\n\n" + prefix + " cells: ");
-        logger.log("\n\n" + prefix + " cells: ");
-        for (Cell cell: cells) {
-            System.out.print(cell.getCoordinates() + " ");
-            logger.log(cell.getCoordinates() + " ");
-        }
-        System.out.print("\n\n");
-        logger.log("\n\n");
+        return bestMazePath;
     }
 }
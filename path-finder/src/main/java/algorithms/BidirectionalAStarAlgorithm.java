@@ -0,0 +1,216 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// external dependencies
+import logs.LogLevel;
+import logs.Logger;
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+/**
+ * A* run from the source and from the target at the same time.
+ *
+ * Each side keeps its own {@link SearchSpace} and expands the smaller frontier first.
+ * Both sides order cells by the averaged potential (h_target - h_source) / 2, which keeps
+ * them consistent with each other. Whenever an edge links both searches the best meeting
+ * cost is updated, and the search stops once the best keys of both frontiers add up to
+ * that cost: no cheaper path can still pass through both frontiers.
+ */
+public class BidirectionalAStarAlgorithm implements PathFinder {
+
+    private static final int NO_COST = Integer.MAX_VALUE;
+
+    private SearchSpace forwardSpace;
+    private SearchSpace backwardSpace;
+
+    private int expandedCells;
+    private int forwardExpandedCells;
+    private int backwardExpandedCells;
+
+    private int bestCost;
+    private int forwardMeetingCell;
+    private int backwardMeetingCell;
+
+    private final Logger logger;
+
+    public BidirectionalAStarAlgorithm() {
+        this.logger = Logger.getInstance();
+    }
+
+    // GETTERS
+
+    @Override
+    public int getExpandedCells() {
+        return expandedCells;
+    }
+
+    public int getForwardExpandedCells() {
+        return forwardExpandedCells;
+    }
+
+    public int getBackwardExpandedCells() {
+        return backwardExpandedCells;
+    }
+
+    // OTHERS
+
+    @Override
+    public List<Pair<Integer, Integer>> findPath(MazeGrid maze, int[] source, int[] target) {
+
+        int mazeSize = maze.size();
+
+        // reuse node state across queries on mazes of the same size
+        if (forwardSpace == null || forwardSpace.getMazeSize() != mazeSize) {
+            forwardSpace = new SearchSpace(mazeSize);
+            backwardSpace = new SearchSpace(mazeSize);
+        }
+        forwardSpace.reset();
+        backwardSpace.reset();
+
+        expandedCells = 0;
+        forwardExpandedCells = 0;
+        backwardExpandedCells = 0;
+        bestCost = NO_COST;
+        forwardMeetingCell = SearchSpace.NO_CELL;
+        backwardMeetingCell = SearchSpace.NO_CELL;
+
+        int sourceCell = forwardSpace.indexOf(source[0], source[1]);
+        int targetCell = forwardSpace.indexOf(target[0], target[1]);
+        int sourceTargetCost = AStarAlgorithm.heuristicFunction(source[0], source[1], target[0], target[1]);
+
+        OpenSet forwardCells = forwardSpace.getWalkableCells();
+        OpenSet backwardCells = backwardSpace.getWalkableCells();
+
+        System.out.print("\n\n//// Bidirectional A* algorithm Execution ////");
+        logger.log("\n\n//// Bidirectional A* algorithm Execution ////");
+
+        if (sourceCell == targetCell) {
+            return Collections.singletonList(Pair.with(source[0], source[1]));
+        }
+
+        // both searches start at no cost from their own end
+        forwardSpace.visit(sourceCell, 0, SearchSpace.NO_CELL);
+        forwardCells.push(sourceCell, 2 * sourceTargetCost, sourceTargetCost);
+
+        if (maze.isWalkable(targetCell)) {
+            backwardSpace.visit(targetCell, 0, SearchSpace.NO_CELL);
+            backwardCells.push(targetCell, 2 * sourceTargetCost, sourceTargetCost);
+        }
+
+        while (!forwardCells.isEmpty() && !backwardCells.isEmpty()) {
+
+            // no cheaper path can pass through both frontiers once their best keys reach the best meeting
+            long bestKeys = (long) forwardCells.getTotalCost(forwardCells.peek())
+                    + backwardCells.getTotalCost(backwardCells.peek());
+            if (bestCost != NO_COST && bestKeys >= 2L * bestCost + 2L * sourceTargetCost) {
+                break;
+            }
+
+            if (forwardCells.size() <= backwardCells.size()) {
+                expand(maze, mazeSize, forwardSpace, backwardSpace, target, source, sourceCell, true);
+                forwardExpandedCells++;
+            }
+            else {
+                expand(maze, mazeSize, backwardSpace, forwardSpace, source, target, sourceCell, false);
+                backwardExpandedCells++;
+            }
+            expandedCells++;
+        }
+
+        if (forwardMeetingCell == SearchSpace.NO_CELL) {
+            System.out.print("\n\nDid not found path :(\n\n");
+            logger.log("\n\nDid not found path :(\n\n");
+            return Collections.emptyList();
+        }
+        return retrievePath(forwardMeetingCell, backwardMeetingCell);
+    }
+
+    public void expand(MazeGrid maze, int mazeSize, SearchSpace space, SearchSpace otherSpace,
+                       int[] goal, int[] start, int sourceCell, boolean forward) {
+
+        OpenSet walkableCells = space.getWalkableCells();
+        int currCell = walkableCells.poll();
+        int currX = space.rowOf(currCell);
+        int currY = space.columnOf(currCell);
+        int currSourceCost = space.getSourceCost(currCell);
+
+        if (logger.isEnabled(LogLevel.TRACE)) {
+            logger.log(LogLevel.TRACE, "\n\nCurrent cell= [" + currX + ", " + currY + "]");
+        }
+
+        space.choose(currCell);
+
+        for (int neighbour = 0; neighbour < SearchSpace.NEIGHBOUR_X.length; neighbour++) {
+            int neighbourX = currX + SearchSpace.NEIGHBOUR_X[neighbour];
+            int neighbourY = currY + SearchSpace.NEIGHBOUR_Y[neighbour];
+
+            if (neighbourX < 0 || neighbourX >= mazeSize || neighbourY < 0 || neighbourY >= mazeSize) {
+                continue;
+            }
+
+            int neighbourCell = space.indexOf(neighbourX, neighbourY);
+
+            // walking backwards, the source is the only cell that may be left without being walkable
+            boolean walkable = maze.isWalkable(neighbourCell) || (!forward && neighbourCell == sourceCell);
+
+            if (!walkable) {
+                continue;
+            }
+
+            int newNeighbourSourceCost = currSourceCost
+                    + AStarAlgorithm.heuristicFunction(currX, currY, neighbourX, neighbourY);
+
+            // an edge reaching the other search closes a full path
+            if (otherSpace.isVisited(neighbourCell)) {
+                int pathCost = newNeighbourSourceCost + otherSpace.getSourceCost(neighbourCell);
+
+                if (pathCost < bestCost) {
+                    bestCost = pathCost;
+                    forwardMeetingCell = forward ? currCell : neighbourCell;
+                    backwardMeetingCell = forward ? neighbourCell : currCell;
+                }
+            }
+
+            // if it wasn't already chosen
+            if (space.isChosen(neighbourCell)) {
+                continue;
+            }
+
+            // if path to current neighbour is shorter or neighbour is not considered walkable yet
+            if (!space.isVisited(neighbourCell) || newNeighbourSourceCost < space.getSourceCost(neighbourCell)) {
+                int neighbourTargetCost = AStarAlgorithm.heuristicFunction(neighbourX, neighbourY, goal[0], goal[1]);
+                int neighbourStartCost = AStarAlgorithm.heuristicFunction(neighbourX, neighbourY, start[0], start[1]);
+                int startGoalCost = AStarAlgorithm.heuristicFunction(start[0], start[1], goal[0], goal[1]);
+
+                // balanced key: twice the cost plus the averaged potentials of both ends
+                space.visit(neighbourCell, newNeighbourSourceCost, currCell);
+                walkableCells.push(neighbourCell,
+                        2 * newNeighbourSourceCost + neighbourTargetCost - neighbourStartCost + startGoalCost,
+                        neighbourTargetCost);
+            }
+        }
+    }
+
+    public List<Pair<Integer, Integer>> retrievePath(int forwardCell, int backwardCell) {
+        List<Pair<Integer, Integer>> bestMazePath = new ArrayList<>();
+
+        // source half, from the meeting edge back to the source
+        while (forwardCell != SearchSpace.NO_CELL) {
+            bestMazePath.add(Pair.with(forwardSpace.rowOf(forwardCell), forwardSpace.columnOf(forwardCell)));
+            forwardCell = forwardSpace.getPreviousCell(forwardCell);
+        }
+        Collections.reverse(bestMazePath);
+
+        // target half, from the meeting edge on to the target
+        while (backwardCell != SearchSpace.NO_CELL) {
+            bestMazePath.add(Pair.with(backwardSpace.rowOf(backwardCell), backwardSpace.columnOf(backwardCell)));
+            backwardCell = backwardSpace.getPreviousCell(backwardCell);
+        }
+
+        return bestMazePath;
+    }
+}
@@ -0,0 +1,183 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// external dependencies
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+/**
+ * Bounded LRU cache in front of another {@link PathFinder}.
+ *
+ * Paths are keyed by the content fingerprint of the maze plus both endpoints, so a
+ * query against an identical maze is answered without searching. When a maze seen
+ * before comes back with a different fingerprint, the entries computed against its
+ * old content are dropped.
+ *
+ * The command line answers a single query per run, so the cache is meant for library
+ * callers that resolve many queries against the same mazes.
+ */
+public class CachedPathFinder implements PathFinder {
+
+    private static final class Key {
+
+        private final long fingerprint;
+        private final int sourceX;
+        private final int sourceY;
+        private final int targetX;
+        private final int targetY;
+
+        private Key(long fingerprint, int[] source, int[] target) {
+            this.fingerprint = fingerprint;
+            this.sourceX = source[0];
+            this.sourceY = source[1];
+            this.targetX = target[0];
+            this.targetY = target[1];
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return fingerprint == key.fingerprint
+                    && sourceX == key.sourceX && sourceY == key.sourceY
+                    && targetX == key.targetX && targetY == key.targetY;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(fingerprint);
+            hash = 31 * hash + sourceX;
+            hash = 31 * hash + sourceY;
+            hash = 31 * hash + targetX;
+            hash = 31 * hash + targetY;
+            return hash;
+        }
+    }
+
+    private final PathFinder pathFinder;
+    private final int maxEntries;
+    private final long maxCells;
+
+    private final LinkedHashMap<Key, List<Pair<Integer, Integer>>> paths;
+    private long cachedCells;
+
+    private MazeGrid lastMaze;
+    private long lastFingerprint;
+
+    private long hits;
+    private long misses;
+    private int expandedCells;
+
+    public CachedPathFinder(PathFinder pathFinder, int maxEntries) {
+        this(pathFinder, maxEntries, Long.MAX_VALUE);
+    }
+
+    public CachedPathFinder(PathFinder pathFinder, int maxEntries, long maxCells) {
+        this.pathFinder = pathFinder;
+        this.maxEntries = maxEntries;
+        this.maxCells = maxCells;
+        this.paths = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // GETTERS
+
+    @Override
+    public int getExpandedCells() {
+        return expandedCells;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    // OTHERS
+
+    @Override
+    public List<Pair<Integer, Integer>> findPath(MazeGrid maze, int[] source, int[] target) {
+        Key key = new Key(fingerprintOf(maze), source, target);
+        List<Pair<Integer, Integer>> path = paths.get(key);
+
+        if (path != null) {
+            hits++;
+            expandedCells = 0;
+            return path;
+        }
+
+        misses++;
+        path = Collections.unmodifiableList(new ArrayList<>(pathFinder.findPath(maze, source, target)));
+        expandedCells = pathFinder.getExpandedCells();
+
+        paths.put(key, path);
+        cachedCells += path.size();
+        evict();
+
+        return path;
+    }
+
+    /**
+     * Drops every path computed against the maze, before or after it was edited in place.
+     */
+    public void invalidate(MazeGrid maze) {
+        if (maze == lastMaze) {
+            invalidate(lastFingerprint);
+            lastMaze = null;
+        }
+        invalidate(maze.fingerprint());
+    }
+
+    private void invalidate(long fingerprint) {
+        Iterator<Map.Entry<Key, List<Pair<Integer, Integer>>>> entries = paths.entrySet().iterator();
+
+        // forget every path computed against that content
+        while (entries.hasNext()) {
+            Map.Entry<Key, List<Pair<Integer, Integer>>> entry = entries.next();
+            if (entry.getKey().fingerprint == fingerprint) {
+                cachedCells -= entry.getValue().size();
+                entries.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        paths.clear();
+        cachedCells = 0;
+        lastMaze = null;
+    }
+
+    private long fingerprintOf(MazeGrid maze) {
+        long fingerprint = maze.fingerprint();
+
+        // the same maze came back edited
+        if (maze == lastMaze && fingerprint != lastFingerprint) {
+            invalidate(lastFingerprint);
+        }
+        lastMaze = maze;
+        lastFingerprint = fingerprint;
+
+        return fingerprint;
+    }
+
+    private void evict() {
+        Iterator<List<Pair<Integer, Integer>>> eldest = paths.values().iterator();
+
+        while ((paths.size() > maxEntries || cachedCells > maxCells) && eldest.hasNext()) {
+            cachedCells -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// external dependencies
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+/**
+ * Cost to reach one target from every cell of a maze, one int per cell.
+ *
+ * The field is filled by a single reverse Dijkstra pass from the target using the
+ * same moves and 10/14 costs as {@link AStarAlgorithm}. Afterwards any source reads
+ * off its path by stepping to a neighbour whose distance plus the step cost equals
+ * its own, without searching again.
+ */
+public class DistanceField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final int mazeSize;
+    private final int[] distances;
+
+    private OpenSet walkableCells;
+
+    private MazeGrid maze;
+    private long mazeFingerprint;
+    private int targetX = -1;
+    private int targetY = -1;
+
+    private int settledCells;
+
+    public DistanceField(int mazeSize) {
+        if (mazeSize > MazeGrid.MAX_SIZE) {
+            throw new IllegalArgumentException("maze of side " + mazeSize
+                    + " is too large for a distance field, at most " + MazeGrid.MAX_SIZE);
+        }
+        this.mazeSize = mazeSize;
+        this.distances = new int[mazeSize * mazeSize];
+    }
+
+    // GETTERS
+
+    public int getMazeSize() {
+        return mazeSize;
+    }
+
+    public int getSettledCells() {
+        return settledCells;
+    }
+
+    public boolean isComputedFor(MazeGrid maze, int[] target) {
+        return this.maze == maze && mazeFingerprint == maze.fingerprint()
+                && targetX == target[0] && targetY == target[1];
+    }
+
+    public int getDistance(int x, int y) {
+        return distances[x * mazeSize + y];
+    }
+
+    // OTHERS
+
+    public void compute(MazeGrid maze, int[] target) {
+        if (walkableCells == null) {
+            walkableCells = new OpenSet(mazeSize * mazeSize);
+        }
+        walkableCells.clear();
+        Arrays.fill(distances, UNREACHABLE);
+
+        this.maze = maze;
+        this.mazeFingerprint = maze.fingerprint();
+        this.targetX = target[0];
+        this.targetY = target[1];
+        this.settledCells = 0;
+
+        // the target can only be entered when it is walkable
+        int targetCell = targetX * mazeSize + targetY;
+        if (!maze.isWalkable(targetCell)) {
+            return;
+        }
+
+        distances[targetCell] = 0;
+        walkableCells.push(targetCell, 0, 0);
+
+        while (!walkableCells.isEmpty()) {
+            int currCell = walkableCells.poll();
+            int currX = currCell / mazeSize;
+            int currY = currCell % mazeSize;
+            settledCells++;
+
+            // cells that cannot be walked through may still start a path, but never continue one
+            if (currCell != targetCell && !maze.isWalkable(currCell)) {
+                continue;
+            }
+
+            int currDistance = distances[currCell];
+
+            for (int neighbour = 0; neighbour < SearchSpace.NEIGHBOUR_X.length; neighbour++) {
+                int neighbourX = currX + SearchSpace.NEIGHBOUR_X[neighbour];
+                int neighbourY = currY + SearchSpace.NEIGHBOUR_Y[neighbour];
+
+                if (neighbourX < 0 || neighbourX >= mazeSize || neighbourY < 0 || neighbourY >= mazeSize) {
+                    continue;
+                }
+
+                int neighbourCell = neighbourX * mazeSize + neighbourY;
+                int newDistance = currDistance + AStarAlgorithm.heuristicFunction(currX, currY, neighbourX, neighbourY);
+
+                if (newDistance < distances[neighbourCell]) {
+                    distances[neighbourCell] = newDistance;
+                    walkableCells.push(neighbourCell, newDistance, 0);
+                }
+            }
+        }
+    }
+
+    public List<Pair<Integer, Integer>> pathFrom(int[] source) {
+        int x = source[0];
+        int y = source[1];
+
+        if (x == targetX && y == targetY) {
+            return Collections.singletonList(Pair.with(x, y));
+        }
+
+        if (distances[x * mazeSize + y] == UNREACHABLE) {
+            return Collections.emptyList();
+        }
+
+        List<Pair<Integer, Integer>> bestMazePath = new ArrayList<>();
+        bestMazePath.add(Pair.with(x, y));
+
+        // descend the field until the target, where the distance is zero
+        while (x != targetX || y != targetY) {
+            int distance = distances[x * mazeSize + y];
+
+            for (int neighbour = 0; neighbour < SearchSpace.NEIGHBOUR_X.length; neighbour++) {
+                int neighbourX = x + SearchSpace.NEIGHBOUR_X[neighbour];
+                int neighbourY = y + SearchSpace.NEIGHBOUR_Y[neighbour];
+
+                if (neighbourX < 0 || neighbourX >= mazeSize || neighbourY < 0 || neighbourY >= mazeSize
+                        || !maze.isWalkable(neighbourX, neighbourY)) {
+                    continue;
+                }
+
+                int neighbourDistance = distances[neighbourX * mazeSize + neighbourY];
+
+                if (neighbourDistance != UNREACHABLE && neighbourDistance
+                        + AStarAlgorithm.heuristicFunction(x, y, neighbourX, neighbourY) == distance) {
+                    x = neighbourX;
+                    y = neighbourY;
+                    break;
+                }
+            }
+            bestMazePath.add(Pair.with(x, y));
+        }
+        return bestMazePath;
+    }
+}
@@ -0,0 +1,72 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.List;
+
+// external dependencies
+import logs.Logger;
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+/**
+ * One-to-many path finder: keeps the {@link DistanceField} of the last target and
+ * answers every later query towards that target by following its gradient.
+ */
+public class FlowFieldAlgorithm implements PathFinder {
+
+    private DistanceField field;
+
+    private int expandedCells;
+
+    private final Logger logger;
+
+    public FlowFieldAlgorithm() {
+        this.logger = Logger.getInstance();
+    }
+
+    // GETTERS
+
+    @Override
+    public int getExpandedCells() {
+        return expandedCells;
+    }
+
+    public DistanceField getDistanceField() {
+        return field;
+    }
+
+    // OTHERS
+
+    public DistanceField computeField(MazeGrid maze, int[] target) {
+        int mazeSize = maze.size();
+
+        if (field == null || field.getMazeSize() != mazeSize) {
+            field = new DistanceField(mazeSize);
+        }
+
+        // the field is only rebuilt for a new target or maze
+        if (!field.isComputedFor(maze, target)) {
+            field.compute(maze, target);
+            expandedCells = field.getSettledCells();
+        }
+        else {
+            expandedCells = 0;
+        }
+        return field;
+    }
+
+    @Override
+    public List<Pair<Integer, Integer>> findPath(MazeGrid maze, int[] source, int[] target) {
+
+        System.out.print("\n\n//// Flow field Execution ////");
+        logger.log("\n\n//// Flow field Execution ////");
+
+        List<Pair<Integer, Integer>> path = computeField(maze, target).pathFrom(source);
+
+        if (path.isEmpty()) {
+            System.out.print("\n\nDid not found path :(\n\n");
+            logger.log("\n\nDid not found path :(\n\n");
+        }
+        return path;
+    }
+}
@@ -0,0 +1,243 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// external dependencies
+import logs.LogLevel;
+import logs.Logger;
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+/**
+ * Jump Point Search over the same 8-connected, 10/14 cost grid as {@link AStarAlgorithm}.
+ *
+ * Straight and diagonal runs without forced neighbours are skipped by jumping, so only
+ * jump points reach the open set. Paths keep the optimal A* cost and are returned cell
+ * by cell, with the skipped cells between jump points filled back in.
+ */
+public class JumpPointSearchAlgorithm implements PathFinder {
+
+    private SearchSpace space;
+
+    private MazeGrid maze;
+    private int targetX;
+    private int targetY;
+
+    private int expandedCells;
+
+    private final int[] directionsX = new int[SearchSpace.NEIGHBOUR_X.length];
+    private final int[] directionsY = new int[SearchSpace.NEIGHBOUR_Y.length];
+
+    private final Logger logger;
+
+    public JumpPointSearchAlgorithm() {
+        this.logger = Logger.getInstance();
+    }
+
+    // GETTERS
+
+    @Override
+    public int getExpandedCells() {
+        return expandedCells;
+    }
+
+    // OTHERS
+
+    @Override
+    public List<Pair<Integer, Integer>> findPath(MazeGrid maze, int[] source, int[] target) {
+
+        int mazeSize = maze.size();
+
+        // reuse node state across queries on mazes of the same size
+        if (space == null || space.getMazeSize() != mazeSize) {
+            space = new SearchSpace(mazeSize);
+        }
+        space.reset();
+
+        this.maze = maze;
+        this.targetX = target[0];
+        this.targetY = target[1];
+        this.expandedCells = 0;
+
+        OpenSet walkableCells = space.getWalkableCells();
+        int targetCell = space.indexOf(targetX, targetY);
+
+        // source is a free cell reached at no cost
+        int sourceCell = space.indexOf(source[0], source[1]);
+        int sourceTargetCost = AStarAlgorithm.heuristicFunction(source[0], source[1], targetX, targetY);
+        space.visit(sourceCell, 0, SearchSpace.NO_CELL);
+        walkableCells.push(sourceCell, sourceTargetCost, sourceTargetCost);
+
+        System.out.print("\n\n//// Jump point search Execution ////");
+        logger.log("\n\n//// Jump point search Execution ////");
+
+        // checked once, so the loop builds nothing when cells are not logged
+        boolean logCells = logger.isEnabled(LogLevel.TRACE);
+
+        while (!walkableCells.isEmpty()) {
+
+            int currCell = walkableCells.poll();
+
+            if (currCell == targetCell) {
+                return retrievePath(currCell);
+            }
+
+            int currX = space.rowOf(currCell);
+            int currY = space.columnOf(currCell);
+            int currSourceCost = space.getSourceCost(currCell);
+
+            if (logCells) {
+                logger.log(LogLevel.TRACE, "\n\nCurrent cell= [" + currX + ", " + currY + "]");
+            }
+
+            space.choose(currCell);
+            expandedCells++;
+
+            // only follow the directions that are not dominated by a path through the parent
+            int numDirections = prunedDirections(currCell, currX, currY);
+
+            for (int direction = 0; direction < numDirections; direction++) {
+                int jumpCell = jump(currX, currY, directionsX[direction], directionsY[direction]);
+
+                if (jumpCell == SearchSpace.NO_CELL || space.isChosen(jumpCell)) {
+                    continue;
+                }
+
+                int jumpX = space.rowOf(jumpCell);
+                int jumpY = space.columnOf(jumpCell);
+                int newJumpSourceCost = currSourceCost + AStarAlgorithm.heuristicFunction(currX, currY, jumpX, jumpY);
+
+                if (!space.isVisited(jumpCell) || newJumpSourceCost < space.getSourceCost(jumpCell)) {
+                    int jumpTargetCost = AStarAlgorithm.heuristicFunction(jumpX, jumpY, targetX, targetY);
+
+                    space.visit(jumpCell, newJumpSourceCost, currCell);
+                    walkableCells.push(jumpCell, newJumpSourceCost + jumpTargetCost, jumpTargetCost);
+                }
+            }
+        }
+
+        System.out.print("\n\nDid not found path :(\n\n");
+        logger.log("\n\nDid not found path :(\n\n");
+        return Collections.emptyList();
+    }
+
+    public int prunedDirections(int cell, int x, int y) {
+        int previousCell = space.getPreviousCell(cell);
+
+        // source cell explores every direction
+        if (previousCell == SearchSpace.NO_CELL) {
+            System.arraycopy(SearchSpace.NEIGHBOUR_X, 0, directionsX, 0, SearchSpace.NEIGHBOUR_X.length);
+            System.arraycopy(SearchSpace.NEIGHBOUR_Y, 0, directionsY, 0, SearchSpace.NEIGHBOUR_Y.length);
+            return SearchSpace.NEIGHBOUR_X.length;
+        }
+
+        int dx = Integer.signum(x - space.rowOf(previousCell));
+        int dy = Integer.signum(y - space.columnOf(previousCell));
+        int numDirections = 0;
+
+        if (dx != 0 && dy != 0) {
+            // natural neighbours
+            numDirections = addDirection(numDirections, dx, 0);
+            numDirections = addDirection(numDirections, 0, dy);
+            numDirections = addDirection(numDirections, dx, dy);
+
+            // forced neighbours
+            if (!isWalkable(x - dx, y)) numDirections = addDirection(numDirections, -dx, dy);
+            if (!isWalkable(x, y - dy)) numDirections = addDirection(numDirections, dx, -dy);
+        }
+        else if (dx != 0) {
+            numDirections = addDirection(numDirections, dx, 0);
+
+            if (!isWalkable(x, y + 1)) numDirections = addDirection(numDirections, dx, +1);
+            if (!isWalkable(x, y - 1)) numDirections = addDirection(numDirections, dx, -1);
+        }
+        else {
+            numDirections = addDirection(numDirections, 0, dy);
+
+            if (!isWalkable(x + 1, y)) numDirections = addDirection(numDirections, +1, dy);
+            if (!isWalkable(x - 1, y)) numDirections = addDirection(numDirections, -1, dy);
+        }
+        return numDirections;
+    }
+
+    public int jump(int x, int y, int dx, int dy) {
+        while (true) {
+            x += dx;
+            y += dy;
+
+            if (!isWalkable(x, y)) {
+                return SearchSpace.NO_CELL;
+            }
+
+            if (x == targetX && y == targetY) {
+                return space.indexOf(x, y);
+            }
+
+            if (dx != 0 && dy != 0) {
+                // diagonal move with a forced neighbour
+                if ((!isWalkable(x - dx, y) && isWalkable(x - dx, y + dy))
+                        || (!isWalkable(x, y - dy) && isWalkable(x + dx, y - dy))) {
+                    return space.indexOf(x, y);
+                }
+
+                // diagonal move that leads to a jump point straight ahead
+                if (jump(x, y, dx, 0) != SearchSpace.NO_CELL || jump(x, y, 0, dy) != SearchSpace.NO_CELL) {
+                    return space.indexOf(x, y);
+                }
+            }
+            else if (dx != 0) {
+                if ((!isWalkable(x, y + 1) && isWalkable(x + dx, y + 1))
+                        || (!isWalkable(x, y - 1) && isWalkable(x + dx, y - 1))) {
+                    return space.indexOf(x, y);
+                }
+            }
+            else {
+                if ((!isWalkable(x + 1, y) && isWalkable(x + 1, y + dy))
+                        || (!isWalkable(x - 1, y) && isWalkable(x - 1, y + dy))) {
+                    return space.indexOf(x, y);
+                }
+            }
+        }
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return maze.inBounds(x, y) && maze.isWalkable(x, y);
+    }
+
+    public List<Pair<Integer, Integer>> retrievePath(int cell) {
+        List<Pair<Integer, Integer>> bestMazePath = new ArrayList<>();
+        bestMazePath.add(Pair.with(space.rowOf(cell), space.columnOf(cell)));
+
+        // walk back from jump point to jump point, filling in the skipped cells
+        int previousCell = space.getPreviousCell(cell);
+        while (previousCell != SearchSpace.NO_CELL) {
+            int x = space.rowOf(cell);
+            int y = space.columnOf(cell);
+            int previousX = space.rowOf(previousCell);
+            int previousY = space.columnOf(previousCell);
+            int dx = Integer.signum(previousX - x);
+            int dy = Integer.signum(previousY - y);
+
+            while (x != previousX || y != previousY) {
+                x += dx;
+                y += dy;
+                bestMazePath.add(Pair.with(x, y));
+            }
+
+            cell = previousCell;
+            previousCell = space.getPreviousCell(cell);
+        }
+        Collections.reverse(bestMazePath);
+
+        return bestMazePath;
+    }
+
+    private int addDirection(int numDirections, int dx, int dy) {
+        directionsX[numDirections] = dx;
+        directionsY[numDirections] = dy;
+        return numDirections + 1;
+    }
+}
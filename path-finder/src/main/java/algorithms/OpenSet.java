@@ -0,0 +1,152 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap holding the open cells of a grid search.
+ *
+ * Cells are addressed by their int index ({@code x * mazeSize + y}) and ordered by
+ * total cost, then by target cost, then by first insertion: among equally good cells
+ * the one pushed first is polled first, and a decrease-key keeps a cell's place in
+ * that order. Insertion, decrease-key and removal of the best cell are O(log n).
+ */
+public class OpenSet {
+
+    private final int[] heap;
+    private final int[] position;
+    private final int[] totalCosts;
+    private final int[] targetCosts;
+    private final long[] insertionOrder;
+
+    private int size;
+    private long insertions;
+
+    public OpenSet(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.totalCosts = new int[capacity];
+        this.targetCosts = new int[capacity];
+        this.insertionOrder = new long[capacity];
+        Arrays.fill(this.position, -1);
+    }
+
+    // GETTERS
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int cell) {
+        return position[cell] >= 0;
+    }
+
+    public int getTotalCost(int cell) {
+        return totalCosts[cell];
+    }
+
+    // OTHERS
+
+    public void push(int cell, int totalCost, int targetCost) {
+        int slot = position[cell];
+
+        // new cell goes to the bottom of the heap
+        if (slot < 0) {
+            slot = size++;
+            heap[slot] = cell;
+            position[cell] = slot;
+            insertionOrder[cell] = insertions++;
+        }
+        // known cell only moves when its key improves (decrease-key)
+        else if (!isLess(totalCost, targetCost, insertionOrder[cell], cell)) {
+            return;
+        }
+
+        totalCosts[cell] = totalCost;
+        targetCosts[cell] = targetCost;
+        siftUp(slot);
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public int poll() {
+        int best = heap[0];
+        position[best] = -1;
+
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return best;
+    }
+
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            position[heap[slot]] = -1;
+        }
+        size = 0;
+        insertions = 0;
+    }
+
+    private boolean isLess(int totalCost, int targetCost, long order, int other) {
+        if (totalCost != totalCosts[other]) return totalCost < totalCosts[other];
+        if (targetCost != targetCosts[other]) return targetCost < targetCosts[other];
+        return order < insertionOrder[other];
+    }
+
+    private void siftUp(int slot) {
+        int cell = heap[slot];
+        int totalCost = totalCosts[cell];
+        int targetCost = targetCosts[cell];
+        long order = insertionOrder[cell];
+
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parent = heap[parentSlot];
+
+            if (!isLess(totalCost, targetCost, order, parent)) break;
+
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int cell = heap[slot];
+        int half = size >>> 1;
+
+        while (slot < half) {
+            int childSlot = 2 * slot + 1;
+            int child = heap[childSlot];
+            int rightSlot = childSlot + 1;
+
+            // pick the better of both children
+            if (rightSlot < size) {
+                int right = heap[rightSlot];
+                if (isLess(totalCosts[right], targetCosts[right], insertionOrder[right], child)) {
+                    childSlot = rightSlot;
+                    child = right;
+                }
+            }
+
+            if (!isLess(totalCosts[child], targetCosts[child], insertionOrder[child], cell)) break;
+
+            heap[slot] = child;
+            position[child] = slot;
+            slot = childSlot;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+}
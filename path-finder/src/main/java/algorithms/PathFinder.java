@@ -0,0 +1,15 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.List;
+
+// external dependencies
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+public interface PathFinder {
+
+    List<Pair<Integer, Integer>> findPath(MazeGrid maze, int[] source, int[] target);
+
+    int getExpandedCells();
+}
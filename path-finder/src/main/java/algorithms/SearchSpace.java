@@ -0,0 +1,106 @@
+package algorithms;
+
+// built-in dependencies
+import java.util.Arrays;
+
+/**
+ * Flat per-cell state of a grid search, indexed by {@code x * mazeSize + y}.
+ *
+ * The arrays are allocated once per maze size and reused by every query: a new
+ * query only bumps the visit stamp, so source costs and previous cells left over
+ * from an older query are ignored instead of cleared.
+ */
+public class SearchSpace {
+
+    public static final int NO_CELL = -1;
+
+    // the 8 neighbours of a cell, straight ones first, in the order every grid search expands them
+    public static final int[] NEIGHBOUR_X = {0, +1, -1, 0, +1, -1, -1, +1};
+    public static final int[] NEIGHBOUR_Y = {+1, 0, 0, -1, +1, -1, +1, -1};
+
+    private final int mazeSize;
+
+    private final int[] sourceCosts;
+    private final int[] previousCells;
+    private final int[] visitStamps;
+    private final long[] chosenCells;
+
+    private final OpenSet walkableCells;
+
+    private int stamp;
+
+    public SearchSpace(int mazeSize) {
+        int numCells = mazeSize * mazeSize;
+
+        this.mazeSize = mazeSize;
+        this.sourceCosts = new int[numCells];
+        this.previousCells = new int[numCells];
+        this.visitStamps = new int[numCells];
+        this.chosenCells = new long[(numCells + 63) >>> 6];
+        this.walkableCells = new OpenSet(numCells);
+        this.stamp = 0;
+    }
+
+    // GETTERS
+
+    public int getMazeSize() {
+        return mazeSize;
+    }
+
+    public OpenSet getWalkableCells() {
+        return walkableCells;
+    }
+
+    public boolean isVisited(int cell) {
+        return visitStamps[cell] == stamp;
+    }
+
+    public boolean isChosen(int cell) {
+        return (chosenCells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public int getSourceCost(int cell) {
+        return sourceCosts[cell];
+    }
+
+    public int getPreviousCell(int cell) {
+        return previousCells[cell];
+    }
+
+    // SETTERS
+
+    public void visit(int cell, int sourceCost, int previousCell) {
+        visitStamps[cell] = stamp;
+        sourceCosts[cell] = sourceCost;
+        previousCells[cell] = previousCell;
+    }
+
+    public void choose(int cell) {
+        chosenCells[cell >>> 6] |= 1L << cell;
+    }
+
+    // OTHERS
+
+    public void reset() {
+        walkableCells.clear();
+        Arrays.fill(chosenCells, 0L);
+
+        // stamps only need clearing when the counter wraps around
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    public int indexOf(int x, int y) {
+        return x * mazeSize + y;
+    }
+
+    public int rowOf(int cell) {
+        return cell / mazeSize;
+    }
+
+    public int columnOf(int cell) {
+        return cell % mazeSize;
+    }
+}
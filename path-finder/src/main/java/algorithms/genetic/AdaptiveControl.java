@@ -0,0 +1,147 @@
+package algorithms.genetic;
+
+// built-in dependencies
+import java.util.List;
+
+/**
+ * Adapts the mutation ratios of a run to its progress and decides when it has stagnated.
+ *
+ * After every evaluated generation the controller looks at the best score and at the
+ * diversity of the population, the mean fraction of moves in which agents differ from
+ * the best one. While the best score does not improve and the population has converged,
+ * the mutation ratios are doubled; once it improves again they decay back to the
+ * configured ones. A run stagnant for {@code stagnationLimit} generations is restarted
+ * around its elite while restarts remain, and stopped otherwise.
+ */
+public class AdaptiveControl {
+
+    public enum Action { CONTINUE, RESTART, STOP }
+
+    public static final double MIN_DIVERSITY = 0.05;
+    public static final int MAX_AGENT_MUTATION_RATIO = 100;
+    public static final int MAX_MOVEMENT_MUTATION_RATIO = 25;
+
+    // lowest bit of every 3-bit move of a word
+    private static final long MOVE_LOW_BITS = 0x1249249249249249L;
+
+    private final int baseAgentMutationRatio;
+    private final int baseMovementMutationRatio;
+    private final boolean adaptiveMutation;
+    private final int stagnationLimit;
+    private final int maxRestarts;
+
+    private int agentMutationRatio;
+    private int movementMutationRatio;
+    private int bestScore;
+    private int stagnantGenerations;
+    private int numRestarts;
+    private double diversity;
+
+    public AdaptiveControl(int agentMutationRatio, int movementMutationRatio, boolean adaptiveMutation,
+                           int stagnationLimit, int maxRestarts) {
+        this.baseAgentMutationRatio = agentMutationRatio;
+        this.baseMovementMutationRatio = movementMutationRatio;
+        this.adaptiveMutation = adaptiveMutation;
+        this.stagnationLimit = stagnationLimit;
+        this.maxRestarts = maxRestarts;
+        this.agentMutationRatio = agentMutationRatio;
+        this.movementMutationRatio = movementMutationRatio;
+        this.bestScore = Integer.MAX_VALUE;
+        this.stagnantGenerations = 0;
+        this.numRestarts = 0;
+        this.diversity = 1.0;
+    }
+
+    // GETTERS
+
+    public int getAgentMutationRatio() {
+        return agentMutationRatio;
+    }
+
+    public int getMovementMutationRatio() {
+        return movementMutationRatio;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public int getStagnantGenerations() {
+        return stagnantGenerations;
+    }
+
+    public int getNumRestarts() {
+        return numRestarts;
+    }
+
+    public double getDiversity() {
+        return diversity;
+    }
+
+    // OTHERS
+
+    public Action update(Population population) {
+        List<Agent> agents = population.getAgents();
+        Agent bestAgent = agents.get(0);
+
+        for (Agent agent : agents) {
+            if (agent.getScore() < bestAgent.getScore()) {
+                bestAgent = agent;
+            }
+        }
+        diversity = diversity(agents, bestAgent);
+
+        if (bestAgent.getScore() < bestScore) {
+            bestScore = bestAgent.getScore();
+            stagnantGenerations = 0;
+
+            // progress again: fall back towards the configured ratios
+            if (adaptiveMutation) {
+                agentMutationRatio = Math.max(baseAgentMutationRatio, agentMutationRatio / 2);
+                movementMutationRatio = Math.max(baseMovementMutationRatio, movementMutationRatio / 2);
+            }
+        }
+        else {
+            stagnantGenerations++;
+
+            // stuck and converged: explore harder
+            if (adaptiveMutation && diversity < MIN_DIVERSITY) {
+                agentMutationRatio = Math.min(MAX_AGENT_MUTATION_RATIO, Math.max(1, agentMutationRatio * 2));
+                movementMutationRatio = Math.min(MAX_MOVEMENT_MUTATION_RATIO, Math.max(1, movementMutationRatio * 2));
+            }
+        }
+
+        if (stagnationLimit <= 0 || stagnantGenerations < stagnationLimit) {
+            return Action.CONTINUE;
+        }
+
+        if (numRestarts < maxRestarts) {
+            numRestarts++;
+            stagnantGenerations = 0;
+            agentMutationRatio = baseAgentMutationRatio;
+            movementMutationRatio = baseMovementMutationRatio;
+            return Action.RESTART;
+        }
+        return Action.STOP;
+    }
+
+    private static double diversity(List<Agent> agents, Agent bestAgent) {
+        if (agents.size() < 2) return 0.0;
+
+        long[] bestGenome = bestAgent.getGenome();
+        int bestOffset = bestAgent.getGenomeOffset();
+        long differentMoves = 0;
+
+        for (Agent agent : agents) {
+            long[] genome = agent.getGenome();
+            int offset = agent.getGenomeOffset();
+
+            // a move differs when any of its 3 bits does
+            for (int word = 0; word < agent.getNumWords(); word++) {
+                long difference = genome[offset + word] ^ bestGenome[bestOffset + word];
+                differentMoves += Long.bitCount((difference | difference >>> 1 | difference >>> 2) & MOVE_LOW_BITS);
+            }
+        }
+        return (double) differentMoves / ((long) (agents.size() - 1) * bestAgent.getNumMoves());
+    }
+}
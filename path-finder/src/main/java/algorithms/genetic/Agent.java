@@ -4,32 +4,83 @@ package algorithms.genetic;
 import org.javatuples.Pair;
 
 // built-in dependencies
-import java.io.Serializable;
-import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
 
-public class Agent implements Serializable {
+public class Agent {
+
+    // moves are direction indexes into these tables
+    public static final String[] MOVE_NAMES = {"N", "S", "E", "W", "NE", "NW", "SE", "SW"};
+    public static final int[] MOVE_DX = {-1, +1, 0, 0, -1, -1, +1, +1};
+    public static final int[] MOVE_DY = {0, 0, +1, -1, +1, -1, +1, -1};
+    public static final int[] MOVE_OPPOSITES = {1, 0, 3, 2, 7, 6, 5, 4};
+    public static final int NUM_POSSIBLE_MOVES = 8;
+
+    // 3 bits per move, 21 moves per word
+    public static final int BITS_PER_MOVE = 3;
+    public static final int MOVES_PER_WORD = 21;
+    public static final long MOVE_MASK = 7L;
+
+    // simulation state saved every CHECKPOINT_INTERVAL moves: x, y, score, found way out
+    public static final int CHECKPOINT_INTERVAL = 64;
+    private static final int CHECKPOINT_FIELDS = 4;
 
     private int X;
     private int Y;
 
-    private int identifier;
+    private final int identifier;
     private int score;
 
     private boolean foundWayOut;
 
-    private final List<String> moves;
-    private List<Pair<Integer, Integer>> lastCoordinates;
+    // the moves live in words [genomeOffset, genomeOffset + numWords) of a genome arena
+    private final int numMoves;
+    private final int numWords;
+    private final long[] genome;
+    private final int genomeOffset;
 
-    public Agent(int x, int y, int identifier) {
-        this.moves = new ArrayList<>();
-        this.identifier = identifier;
-        this.score = 0;
+    // checkpoint c holds the state before move c * CHECKPOINT_INTERVAL of the last evaluation
+    private final int[] checkpoints;
+    private int firstDirtyMove;
+
+    public Agent(int x, int y, int identifier, int numMoves) {
+        this(identifier, numMoves, new long[numWords(numMoves)], 0);
         this.X = x;
         this.Y = y;
+    }
+
+    public Agent(int identifier, int numMoves, long[] genome, int genomeOffset) {
+        this.numMoves = numMoves;
+        this.numWords = numWords(numMoves);
+        this.genome = genome;
+        this.genomeOffset = genomeOffset;
+        this.checkpoints = new int[CHECKPOINT_FIELDS * numCheckpoints(numMoves)];
+        this.firstDirtyMove = 0;
+        this.identifier = identifier;
+        this.score = 0;
+        this.X = 0;
+        this.Y = 0;
         this.foundWayOut = false;
     }
 
+    public static int numWords(int numMoves) {
+        return (numMoves + MOVES_PER_WORD - 1) / MOVES_PER_WORD;
+    }
+
+    public static int numCheckpoints(int numMoves) {
+        return numMoves / CHECKPOINT_INTERVAL + 1;
+    }
+
+    public static int commonPrefix(Agent first, Agent second) {
+        for (int word = 0; word < first.numWords; word++) {
+            long difference = first.genome[first.genomeOffset + word] ^ second.genome[second.genomeOffset + word];
+
+            if (difference != 0) {
+                return word * MOVES_PER_WORD + Long.numberOfTrailingZeros(difference) / BITS_PER_MOVE;
+            }
+        }
+        return first.numMoves;
+    }
+
     // GETTERS
 
     public int getIdentifier() {
@@ -40,8 +91,45 @@ public class Agent implements Serializable {
         return score;
     }
 
-    public List<String> getMoves() {
-        return moves;
+    public int getNumMoves() {
+        return numMoves;
+    }
+
+    public int getNumWords() {
+        return numWords;
+    }
+
+    public long[] getGenome() {
+        return genome;
+    }
+
+    public int getGenomeOffset() {
+        return genomeOffset;
+    }
+
+    public int getFirstDirtyMove() {
+        return firstDirtyMove;
+    }
+
+    public boolean isEvaluated() {
+        return firstDirtyMove >= numMoves;
+    }
+
+    public long[] getMoves() {
+        return Arrays.copyOfRange(genome, genomeOffset, genomeOffset + numWords);
+    }
+
+    public int getMove(int move) {
+        return (int) (genome[genomeOffset + move / MOVES_PER_WORD] >>> (BITS_PER_MOVE * (move % MOVES_PER_WORD))
+                & MOVE_MASK);
+    }
+
+    public int getX() {
+        return X;
+    }
+
+    public int getY() {
+        return Y;
     }
 
     public Pair<Integer, Integer> getCoordinates() {
@@ -52,31 +140,96 @@ public class Agent implements Serializable {
         return foundWayOut;
     }
 
-    public List<Pair<Integer, Integer>> getLastCoordinates() {
-        return lastCoordinates;
+    // SETTERS
+
+    public void setMove(int move, int direction) {
+        int word = genomeOffset + move / MOVES_PER_WORD;
+        int shift = BITS_PER_MOVE * (move % MOVES_PER_WORD);
+
+        genome[word] = genome[word] & ~(MOVE_MASK << shift) | (long) direction << shift;
+        markDirty(move);
     }
 
-    // SETTERS
+    public void copyMoves(Agent other) {
+        System.arraycopy(other.genome, other.genomeOffset, genome, genomeOffset, numWords);
+        markDirty(0);
+    }
 
-    public void setFoundWayOut(boolean foundWayOut) {
-        this.foundWayOut = foundWayOut;
+    public void copyMoves(long[] moves) {
+        if (moves.length != numWords) {
+            throw new IllegalArgumentException("genome of " + moves.length + " words for an agent of " + numWords);
+        }
+        System.arraycopy(moves, 0, genome, genomeOffset, numWords);
+        markDirty(0);
+    }
+
+    public void copyFrom(Agent other) {
+        // genome, evaluation and checkpoints, so the copy needs no evaluation of its own
+        System.arraycopy(other.genome, other.genomeOffset, genome, genomeOffset, numWords);
+        System.arraycopy(other.checkpoints, 0, checkpoints, 0, checkpoints.length);
+        this.X = other.X;
+        this.Y = other.Y;
+        this.score = other.score;
+        this.foundWayOut = other.foundWayOut;
+        this.firstDirtyMove = other.firstDirtyMove;
+    }
+
+    public void inheritCheckpoints(Agent parent, int prefix) {
+        // the moves before prefix are the parent's, and so are the checkpoints up to there
+        if (prefix >= numMoves && parent.isEvaluated()) {
+            copyFrom(parent);
+            return;
+        }
+        int numInherited = Math.min(prefix, parent.firstDirtyMove) / CHECKPOINT_INTERVAL + 1;
+        System.arraycopy(parent.checkpoints, 0, checkpoints, 0, CHECKPOINT_FIELDS * numInherited);
+        this.firstDirtyMove = (numInherited - 1) * CHECKPOINT_INTERVAL;
+    }
+
+    public void markDirty(int move) {
+        firstDirtyMove = Math.min(firstDirtyMove, move);
     }
 
-    public void setLastCoordinates(List<Pair<Integer, Integer>> lastCoordinates) {
-        this.lastCoordinates = lastCoordinates;
+    public void markEvaluated() {
+        firstDirtyMove = numMoves;
+    }
+
+    public void saveCheckpoint(int checkpoint) {
+        int field = CHECKPOINT_FIELDS * checkpoint;
+
+        checkpoints[field] = X;
+        checkpoints[field + 1] = Y;
+        checkpoints[field + 2] = score;
+        checkpoints[field + 3] = foundWayOut ? 1 : 0;
+    }
+
+    public void restoreCheckpoint(int checkpoint) {
+        int field = CHECKPOINT_FIELDS * checkpoint;
+
+        X = checkpoints[field];
+        Y = checkpoints[field + 1];
+        score = checkpoints[field + 2];
+        foundWayOut = checkpoints[field + 3] != 0;
+    }
+
+    public void setFoundWayOut(boolean foundWayOut) {
+        this.foundWayOut = foundWayOut;
     }
 
     public void updateScore(int score) {
         this.score += score;
     }
 
+    public void setCoordinate(int x, int y) {
+        this.X = x;
+        this.Y = y;
+    }
+
     public void setCoordinate(Pair<Integer, Integer> coordinates) {
         this.X = coordinates.getValue0();
         this.Y = coordinates.getValue1();
     }
 
     public void reset() {
-        this.identifier = 0;
         this.score = 0;
         this.foundWayOut = false;
     }
@@ -88,43 +241,14 @@ public class Agent implements Serializable {
 
     // OTHERS
 
-    public Pair<Integer, Integer> mapNextPosition(String move) {
-
-        int nextXCoordinate = X;
-        int nextYCoordinate = Y;
-
-        switch (move) {
-            case "N":
-                nextXCoordinate = X - 1;
-                break;
-            case "S":
-                nextXCoordinate = X + 1;
-                break;
-            case "E":
-                nextYCoordinate = Y + 1;
-                break;
-            case "W":
-                nextYCoordinate = Y - 1;
-                break;
-            case "NE":
-                nextXCoordinate = X - 1;
-                nextYCoordinate = Y + 1;
-                break;
-            case "NW":
-                nextXCoordinate = X - 1;
-                nextYCoordinate = Y - 1;
-                break;
-            case "SE":
-                nextXCoordinate = X + 1;
-                nextYCoordinate = Y + 1;
-                break;
-            case "SW":
-                nextXCoordinate = X + 1;
-                nextYCoordinate = Y - 1;
-                break;
-        }
+    public String movesToString() {
+        StringBuilder movesStrBuilder = new StringBuilder("[");
 
-        return Pair.with(nextXCoordinate, nextYCoordinate);
+        for (int move = 0; move < numMoves; move++) {
+            if (move > 0) movesStrBuilder.append(", ");
+            movesStrBuilder.append(MOVE_NAMES[getMove(move)]);
+        }
+        return movesStrBuilder.append("]").toString();
     }
 
     @Override
@@ -132,7 +256,7 @@ public class Agent implements Serializable {
         return "Agent{\n" +
                 "\tidentifier=" + identifier + ",\n" +
                 "\tscore=" + score + ",\n" +
-                "\tmoves=" + moves + ",\n" +
+                "\tmoves=" + movesToString() + ",\n" +
                 '}';
     }
 }
@@ -0,0 +1,34 @@
+package algorithms.genetic;
+
+// external dependencies
+import logs.GenomePredictor;
+
+/**
+ * Predicts a child as the uniform crossover of its parents, drawing the same crossover
+ * stream the run drew. Only the mutated words of a child are then left to trace.
+ */
+public class CrossoverPredictor implements GenomePredictor {
+
+    private final RandomStreams randomStreams;
+    private final StreamRandom crossoverRandom;
+
+    public CrossoverPredictor(long seed) {
+        this.randomStreams = new RandomStreams(seed);
+        this.crossoverRandom = new StreamRandom(seed);
+    }
+
+    @Override
+    public void predict(int generation, int agent, long[] parentGenomes, int fatherOffset, int motherOffset,
+                        int numWords, long[] prediction, int predictionOffset) {
+        // the elite is its own father and mother, and is copied as is
+        if (fatherOffset == motherOffset) {
+            System.arraycopy(parentGenomes, fatherOffset, prediction, predictionOffset, numWords);
+            return;
+        }
+
+        // children of a generation are bred from the streams of the one before
+        randomStreams.reseed(crossoverRandom, generation - 1, RandomStreams.CROSSOVER, agent);
+        GeneticAlgorithm.uniformCrossover(prediction, predictionOffset, parentGenomes, fatherOffset,
+                parentGenomes, motherOffset, numWords, crossoverRandom);
+    }
+}
@@ -1,60 +1,219 @@
 package algorithms.genetic;
 
 // built-in dependencies
-import java.util.*;
-import java.util.stream.IntStream;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 // external dependencies
+import logs.LogLevel;
 import logs.Logger;
-import org.apache.commons.lang.SerializationUtils;
+import logs.Tracer;
+import maze.MazeGrid;
 import org.javatuples.Pair;
 
 public class GeneticAlgorithm {
 
+    public static final int DEFAULT_TOURNAMENT_SIZE = 2;
+
+    // SPREAD_MASKS[b] has all 3 bits of move i set for every bit i of the 7-bit b
+    private static final long[] SPREAD_MASKS = new long[128];
+    static {
+        for (int bits = 0; bits < SPREAD_MASKS.length; bits++) {
+            for (int move = 0; move < 7; move++) {
+                if ((bits >>> move & 1) != 0) {
+                    SPREAD_MASKS[bits] |= Agent.MOVE_MASK << (Agent.BITS_PER_MOVE * move);
+                }
+            }
+        }
+    }
+
     private final int numGenerations;
     private final int numAgents;
     private final int movementMutationRatio;
     private final int agentMutationRatio;
+    private final int numThreads;
+    private final RandomStreams randomStreams;
     private final Logger logger;
+    private final Tracer tracer;
+
+    // reseeded for every stream instead of allocated
+    private final StreamRandom selectionRandom;
+    private final StreamRandom crossoverRandom;
+    private final StreamRandom mutationRandom;
+
+    private ForkJoinPool fitnessPool;
+    private TransitionTable transitionTable;
+    private AdaptiveControl adaptiveControl;
+    private int tournamentSize;
+    private SeedingStrategy seeding;
+    private PopulationCheckpoint checkpoint;
+    private PopulationCheckpoint.Snapshot resumeSnapshot;
+
+    // parents of every agent of the last bred generation, traced so children can be predicted
+    private int[] fathers = new int[0];
+    private int[] mothers = new int[0];
+    private int[] scores = new int[0];
+    private boolean parentsKnown;
 
     public GeneticAlgorithm(int numGenerations, int numAgents, int agentMutationRatio, int movementMutationRatio) {
+        this(numGenerations, numAgents, agentMutationRatio, movementMutationRatio, 1);
+    }
+
+    public GeneticAlgorithm(int numGenerations, int numAgents, int agentMutationRatio, int movementMutationRatio,
+                            int numThreads) {
+        this(numGenerations, numAgents, agentMutationRatio, movementMutationRatio, numThreads, System.nanoTime());
+    }
+
+    public GeneticAlgorithm(int numGenerations, int numAgents, int agentMutationRatio, int movementMutationRatio,
+                            int numThreads, long seed) {
         this.numGenerations = numGenerations;
         this.numAgents = numAgents;
         this.agentMutationRatio = agentMutationRatio;
         this.movementMutationRatio = movementMutationRatio;
+        this.numThreads = numThreads;
+        this.randomStreams = new RandomStreams(seed);
         this.logger = Logger.getInstance();
+        this.tracer = Tracer.getInstance();
+        this.selectionRandom = new StreamRandom(seed);
+        this.crossoverRandom = new StreamRandom(seed);
+        this.mutationRandom = new StreamRandom(seed);
+        this.tournamentSize = DEFAULT_TOURNAMENT_SIZE;
+        this.seeding = SeedingStrategy.UNIFORM;
+    }
+
+    /**
+     * Scores a slice of the population. Agents only write their own state and the maze
+     * is only read, so slices run on separate threads without any locking.
+     */
+    private static final class FitnessTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int MIN_AGENTS_PER_TASK = 4;
+
+        private final List<Agent> agents;
+        private final TransitionTable table;
+        private final int from;
+        private final int to;
+
+        private FitnessTask(List<Agent> agents, TransitionTable table, int from, int to) {
+            this.agents = agents;
+            this.table = table;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_AGENTS_PER_TASK) {
+                for (int agent = from; agent < to; agent++) {
+                    evaluateAgent(agents.get(agent), table);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FitnessTask(agents, table, from, middle), new FitnessTask(agents, table, middle, to));
+        }
+    }
+
+    // GETTERS
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public long getSeed() {
+        return randomStreams.getSeed();
+    }
+
+    public AdaptiveControl getAdaptiveControl() {
+        return adaptiveControl;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+
+    public SeedingStrategy getSeeding() {
+        return seeding;
+    }
+
+    // SETTERS
+
+    public void setAdaptiveControl(AdaptiveControl adaptiveControl) {
+        this.adaptiveControl = adaptiveControl;
+    }
+
+    public void setTournamentSize(int tournamentSize) {
+        this.tournamentSize = Math.max(1, tournamentSize);
+    }
+
+    public void setSeeding(SeedingStrategy seeding) {
+        this.seeding = seeding;
+    }
+
+    public void setCheckpoint(PopulationCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
     }
 
-    public Pair<Integer, Integer> findPath(char[][] maze, int mazeSize, int numAgentMoves) {
+    public void setResumeSnapshot(PopulationCheckpoint.Snapshot resumeSnapshot) {
+        this.resumeSnapshot = resumeSnapshot;
+    }
 
-        Population originalPopulation = new Population("original", numAgents, numAgentMoves);
-        Population intermediatePopulation = new Population("intermediate", numAgents, numAgentMoves);
+    // OTHERS
+
+    public Pair<Integer, Integer> findPath(MazeGrid maze, int numAgentMoves) {
+
+        Population population = new Population("original", numAgents, numAgentMoves);
+
+        int firstGeneration = 0;
+
+        // a resumed run carries on from the saved genomes, with the streams of the saved generation
+        if (resumeSnapshot != null) {
+            population.restore(resumeSnapshot.getGenomes());
+            firstGeneration = resumeSnapshot.getGeneration();
+            parentsKnown = false;
+        }
+        else {
+            startPopulation(population, maze);
+        }
 
-        originalPopulation.start(0, 0);
+        if (tracer.isEnabled()) {
+            tracer.setPredictor(new CrossoverPredictor(randomStreams.getSeed()));
+        }
 
         System.out.print("\n\n//// Genetic algorithm Execution ////\n\n");
         logger.log("\n\n//// Genetic algorithm Execution ////\n\n");
-        
-        for (int generation = 0; generation < numGenerations; generation++) {
+        logger.log("Seed: " + randomStreams.getSeed() + "\n");
+        if (resumeSnapshot != null) {
+            logger.log("Resumed at generation " + firstGeneration + ", best score " + resumeSnapshot.getBestScore() + "\n");
+        }
 
-            System.out.print("\n//// Generation: " + generation + "\n");
-            logger.log("\n//// Generation: " + generation + "\n");
+        for (int generation = firstGeneration; generation < numGenerations; generation++) {
+
+            String generationHeader = "\n//// Generation: " + generation + "\n";
+            System.out.print(generationHeader);
+            logger.log(LogLevel.DEBUG, generationHeader);
 
             // heuristic
-            heuristicFunction(originalPopulation, maze, mazeSize);
+            heuristicFunction(population, maze);
+
+            if (tracer.isEnabled()) {
+                traceGeneration(population, generation);
+            }
 
             if (generation == 0) {
-                logger.log(originalPopulation.toString());
+                logger.log(LogLevel.DEBUG, population::toString);
             }
 
-            Agent solverAgent = originalPopulation.searchSolution();
+            Agent solverAgent = population.searchSolution();
 
             if (solverAgent != null) {
 
-                logger.log(originalPopulation.toString());
+                logger.log(LogLevel.DEBUG, population::toString);
 
-                List<Pair<Integer,Integer>> path = solverAgent.getLastCoordinates();
+                List<Pair<Integer,Integer>> path = replayPath(solverAgent, maze);
 
                 logger.log("\n\nFound path :)\n\n" + path);
                 System.out.print("\n\nFound path :)\n\n" + path);
@@ -62,72 +221,206 @@ public class GeneticAlgorithm {
                 return path.get(path.size()-1);
             }
 
-            // elitism
-            Agent bestFitAgent = elitismAlgorithm(originalPopulation);
-            intermediatePopulation.addAgent(bestFitAgent);
+            if (checkpoint != null) {
+                checkpoint.save(population, generation, randomStreams.getSeed(), maze.fingerprint());
+            }
 
-            // crossover
-            crossoverAlgorithm(originalPopulation, intermediatePopulation);
+            if (adaptiveControl != null) {
+                AdaptiveControl.Action action = adaptiveControl.update(population);
 
-            // mutation
-            intermediatePopulation.mutate(agentMutationRatio, movementMutationRatio);
+                logger.log(LogLevel.DEBUG, () -> String.format(
+                        "\nBest score %d, diversity %.3f, mutation %d%%/%d%%, stagnant for %d\n",
+                        adaptiveControl.getBestScore(), adaptiveControl.getDiversity(),
+                        adaptiveControl.getAgentMutationRatio(), adaptiveControl.getMovementMutationRatio(),
+                        adaptiveControl.getStagnantGenerations()));
 
-            // update current population
-            originalPopulation.copy(intermediatePopulation);
-            intermediatePopulation.clear();
+                if (action == AdaptiveControl.Action.STOP) {
+                    System.out.print("\n\nStopped: stagnant at generation " + generation + "\n\n");
+                    logger.log("\n\nStopped: stagnant at generation " + generation + "\n\n");
+                    break;
+                }
+                if (action == AdaptiveControl.Action.RESTART) {
+                    System.out.print("\n\nRestart " + adaptiveControl.getNumRestarts() + " at generation "
+                            + generation + "\n\n");
+                    logger.log("\n\nRestart " + adaptiveControl.getNumRestarts() + " at generation "
+                            + generation + "\n\n");
+
+                    // the restarted agents are the next generation, keeping the elite in slot 0
+                    population.restart(generation + 1, randomStreams);
+                    parentsKnown = false;
+                    continue;
+                }
+            }
 
+            breed(population, generation);
         }
         System.out.print("\n\nDid not found path :(\n\n");
         return Pair.with(-1, -1);
     }
 
-    public void heuristicFunction(Population population, char[][] maze, int mazeSize) {
-        for (Agent agent: population.getAgents()) {
+    private void traceGeneration(Population population, int generation) {
+        List<Agent> agents = population.getAgents();
+        if (scores.length != agents.size()) {
+            scores = new int[agents.size()];
+        }
+        for (int agent = 0; agent < scores.length; agent++) {
+            scores[agent] = agents.get(agent).getScore();
+        }
 
-            agent.resetCoordinates();
-            List<Pair<Integer, Integer>> agentCoordinates = new ArrayList<>();
+        tracer.traceGeneration(generation, population.getNumAgentMoves(), population.getNumWords(),
+                population.getGenomes(), scores, parentsKnown ? fathers : null, parentsKnown ? mothers : null);
+    }
 
-            for (String move : agent.getMoves()) {
-                agentCoordinates.add(agent.getCoordinates());
-                if (agent.foundWayOut()) break;
-                scoreMove(agent, move, maze, mazeSize);
-            }
+    public void startPopulation(Population population, MazeGrid maze) {
+        if (seeding == SeedingStrategy.WALK) {
+            population.startWalks(0, 0, randomStreams, transitionTable(maze));
+        }
+        else {
+            population.start(0, 0, randomStreams);
+        }
+        parentsKnown = false;
+    }
+
+    public void breed(Population population, int generation) {
+
+        // elitism
+        elitismAlgorithm(population);
+
+        // crossover
+        crossoverAlgorithm(population, generation);
 
-            if (!agent.foundWayOut()) {
-                agent.updateScore(+1000);
+        // mutation
+        int agentRatio = adaptiveControl == null ? agentMutationRatio : adaptiveControl.getAgentMutationRatio();
+        int movementRatio = adaptiveControl == null ? movementMutationRatio : adaptiveControl.getMovementMutationRatio();
+        population.mutate(agentRatio, movementRatio,
+                randomStreams.reseed(mutationRandom, generation, RandomStreams.MUTATION, 0));
+
+        // the bred generation becomes the current one
+        population.swap();
+        parentsKnown = true;
+    }
+
+    public void heuristicFunction(Population population, MazeGrid maze) {
+        List<Agent> agents = population.getAgents();
+        TransitionTable table = transitionTable(maze);
+
+        if (numThreads <= 1) {
+            for (Agent agent: agents) {
+                evaluateAgent(agent, table);
             }
+            return;
+        }
+
+        if (fitnessPool == null) {
+            fitnessPool = new ForkJoinPool(numThreads);
+        }
+        fitnessPool.invoke(new FitnessTask(agents, table, 0, agents.size()));
+    }
 
-            agent.setLastCoordinates(agentCoordinates);
+    public void close() {
+        if (fitnessPool != null) {
+            fitnessPool.shutdown();
+            fitnessPool = null;
         }
     }
 
-    public void scoreMove(Agent agent, String move, char[][] maze, int mazeSize) {
+    public synchronized TransitionTable transitionTable(MazeGrid maze) {
+        // built once per maze, and again only if the maze was edited
+        if (transitionTable == null || transitionTable.getMazeSize() != maze.size()) {
+            transitionTable = new TransitionTable(maze.size());
+        }
+        if (!transitionTable.isBuiltFor(maze)) {
+            transitionTable.build(maze);
+        }
+        return transitionTable;
+    }
 
-        Pair<Integer, Integer> agentNextCoordinate = agent.mapNextPosition(move);
-        int nextX = agentNextCoordinate.getValue0();
-        int nextY = agentNextCoordinate.getValue1();
+    public void evaluateAgent(Agent agent, MazeGrid maze) {
+        evaluateAgent(agent, transitionTable(maze));
+    }
 
-        if ( nextX >= 0 && nextX < mazeSize && nextY >= 0 && nextY < mazeSize) {
+    private static void evaluateAgent(Agent agent, TransitionTable table) {
+        // elites and agents left untouched since their last evaluation keep their score
+        if (agent.isEvaluated()) {
+            return;
+        }
 
-            char mazeCell = maze[nextX][nextY];
+        int numMoves = agent.getNumMoves();
+        int checkpoint = agent.getFirstDirtyMove() / Agent.CHECKPOINT_INTERVAL;
 
-            switch (mazeCell) {
-                case 'S':
-                    agent.setCoordinate(agentNextCoordinate);
-                    agent.setFoundWayOut(true);
-                    break;
-                case 'E':
-                case '0':
-                    agent.setCoordinate(agentNextCoordinate);
-                    break;
-                case '1':
-                case 'B':
-                    agent.updateScore(+5);
-                    break;
-            }
+        // resume from the last checkpoint before the first changed move
+        if (checkpoint == 0) {
+            agent.reset();
+            agent.resetCoordinates();
         }
         else {
-            agent.updateScore(+20);
+            agent.restoreCheckpoint(checkpoint);
+        }
+
+        // the walk runs on locals, written back to the agent only at checkpoints
+        int cell = table.cell(agent.getX(), agent.getY());
+        int penalty = 0;
+        boolean foundWayOut = agent.foundWayOut();
+
+        for (int move = checkpoint * Agent.CHECKPOINT_INTERVAL; move < numMoves; move++) {
+            if (move == checkpoint * Agent.CHECKPOINT_INTERVAL) {
+                agent.setCoordinate(table.x(cell), table.y(cell));
+                agent.updateScore(penalty);
+                agent.setFoundWayOut(foundWayOut);
+                penalty = 0;
+                agent.saveCheckpoint(checkpoint++);
+            }
+            if (foundWayOut) break;
+
+            int direction = agent.getMove(move);
+            int outcome = table.outcome(cell, direction);
+
+            penalty += TransitionTable.PENALTIES[outcome];
+            cell = table.nextCell(cell, direction, outcome);
+            foundWayOut = outcome == TransitionTable.EXIT;
+        }
+
+        agent.setCoordinate(table.x(cell), table.y(cell));
+        agent.updateScore(penalty);
+        agent.setFoundWayOut(foundWayOut);
+
+        // once the way out is found the state no longer changes
+        for (; checkpoint < Agent.numCheckpoints(numMoves); checkpoint++) {
+            agent.saveCheckpoint(checkpoint);
+        }
+
+        if (!agent.foundWayOut()) {
+            agent.updateScore(+1000);
+        }
+        agent.markEvaluated();
+    }
+
+    public List<Pair<Integer, Integer>> replayPath(Agent agent, MazeGrid maze) {
+        // walks a copy of the agent again, only once a solution is found
+        Agent walker = new Agent(agent.getIdentifier(), agent.getNumMoves(), agent.getGenome(), agent.getGenomeOffset());
+        List<Pair<Integer, Integer>> agentCoordinates = new ArrayList<>();
+
+        agentCoordinates.add(walker.getCoordinates());
+        for (int move = 0; move < walker.getNumMoves() && !walker.foundWayOut(); move++) {
+            scoreMove(walker, walker.getMove(move), maze);
+            agentCoordinates.add(walker.getCoordinates());
+        }
+        return agentCoordinates;
+    }
+
+    public void scoreMove(Agent agent, int move, MazeGrid maze) {
+        TransitionTable table = transitionTable(maze);
+
+        int cell = table.cell(agent.getX(), agent.getY());
+        int outcome = table.outcome(cell, move);
+        int nextCell = table.nextCell(cell, move, outcome);
+
+        // walls cost +5 and leaving the maze +20, moving onto a cell may find the way out
+        agent.updateScore(TransitionTable.PENALTIES[outcome]);
+
+        if (nextCell != cell) {
+            agent.setCoordinate(table.x(nextCell), table.y(nextCell));
+            agent.setFoundWayOut(outcome == TransitionTable.EXIT);
         }
     }
 
@@ -141,77 +434,101 @@ public class GeneticAlgorithm {
             }
         }
 
-        Agent bestAgent = (Agent)SerializationUtils.clone(pivot);
+        // the elite is carried into slot 0 of the bred generation, along with its evaluation
+        Agent bestAgent = population.getNextAgents().get(0);
+        bestAgent.copyFrom(pivot);
+        recordParents(population, 0, pivot, pivot);
 
-        logger.log("\n\nBest agent at generation: \n\n" + bestAgent.toString());
-
-        bestAgent.reset();
+        logger.log(LogLevel.DEBUG, () -> "\n\nBest agent at generation: \n\n" + bestAgent.toString());
 
         return bestAgent;
     }
 
-    public Agent tournamentAlgorithm(Population population, Agent excludedAgent) {
+    public Agent tournamentAlgorithm(Population population, Agent excludedAgent, StreamRandom random) {
         List<Agent> agents = population.getAgents();
-        Pair <Integer, Integer> agentsIndexPair = getRandomPairOfAgentIndexes(population.getNumAgents(), excludedAgent);
+        int excludedAgentId = excludedAgent == null ? -1 : excludedAgent.getIdentifier();
 
-        int firstAgentId = agentsIndexPair.getValue0();
-        int secondAgentId = agentsIndexPair.getValue1();
+        // contestants are drawn with replacement, so a tournament needs no index list
+        Agent winner = agents.get(randomAgentIndex(population.getNumAgents(), excludedAgentId, -1, random));
 
-        Agent firstAgent = agents.get(firstAgentId);
-        Agent secondAgent = agents.get(secondAgentId);
+        for (int contestant = 1; contestant < tournamentSize; contestant++) {
+            Agent challenger = agents.get(randomAgentIndex(population.getNumAgents(), excludedAgentId, -1, random));
 
-        if ( firstAgent.getScore() < secondAgent.getScore()) {
-            return firstAgent;
-        }
-        else {
-            return secondAgent;
+            if (challenger.getScore() < winner.getScore()) {
+                winner = challenger;
+            }
         }
+        return winner;
     }
 
-    public void crossoverAlgorithm(Population originalPopulation, Population intermediatePopulation) {
+    public void crossoverAlgorithm(Population population, int generation) {
 
-        Random random = new Random();
+        List<Agent> children = population.getNextAgents();
 
-        for (int childId = 1; childId < intermediatePopulation.getNumAgents(); childId++) {
+        for (int childId = 1; childId < population.getNumAgents(); childId++) {
 
-            Agent child = new Agent(0,0, childId);
+            // one stream per child, so children do not depend on the order they are bred in
+            randomStreams.reseed(selectionRandom, generation, RandomStreams.SELECTION, childId);
+            randomStreams.reseed(crossoverRandom, generation, RandomStreams.CROSSOVER, childId);
 
-            Agent father = tournamentAlgorithm(originalPopulation, null);
-            Agent mother = tournamentAlgorithm(originalPopulation, father);
+            Agent child = children.get(childId);
 
-            for (int move = 0; move < intermediatePopulation.getNumAgentMoves(); move ++ ) {
-                int mask = random.nextInt(2);
+            Agent father = tournamentAlgorithm(population, null, selectionRandom);
+            Agent mother = tournamentAlgorithm(population, father, selectionRandom);
 
-                if (mask == 0) {
-                    child.getMoves().add(father.getMoves().get(move));
-                }
-                else if (mask == 1) {
-                    child.getMoves().add(mother.getMoves().get(move));
-                }
-            }
+            uniformCrossover(child, father, mother, crossoverRandom);
+            recordParents(population, childId, father, mother);
 
-            intermediatePopulation.addAgent(child);
+            // only the moves after the longest prefix shared with a parent need simulating
+            int fatherPrefix = Agent.commonPrefix(child, father);
+            int motherPrefix = Agent.commonPrefix(child, mother);
+            if (fatherPrefix >= motherPrefix) {
+                child.inheritCheckpoints(father, fatherPrefix);
+            }
+            else {
+                child.inheritCheckpoints(mother, motherPrefix);
+            }
         }
     }
 
-    public Pair<Integer, Integer> getRandomPairOfAgentIndexes(int boundary, Agent excludedAgent) {
-        Random random = new Random();
+    private void recordParents(Population population, int childId, Agent father, Agent mother) {
+        if (fathers.length != population.getNumAgents()) {
+            fathers = new int[population.getNumAgents()];
+            mothers = new int[population.getNumAgents()];
+        }
+        fathers[childId] = father.getIdentifier();
+        mothers[childId] = mother.getIdentifier();
+    }
 
-        List<Integer> availableAgentIndexes = IntStream.rangeClosed(0, boundary - 1)
-                .boxed()
-                .collect(Collectors.toList());
+    public static void uniformCrossover(Agent child, Agent father, Agent mother, StreamRandom random) {
+        uniformCrossover(child.getGenome(), child.getGenomeOffset(), father.getGenome(), father.getGenomeOffset(),
+                mother.getGenome(), mother.getGenomeOffset(), child.getNumWords(), random);
+    }
 
-        if (excludedAgent != null) {
-            availableAgentIndexes.remove(excludedAgent.getIdentifier());
-            boundary --;
+    public static void uniformCrossover(long[] childGenome, int childOffset, long[] fatherGenome, int fatherOffset,
+                                        long[] motherGenome, int motherOffset, int numWords, StreamRandom random) {
+        // 21 random bits per word, each spread over the 3 bits of a move: set takes the mother's move
+        for (int word = 0; word < numWords; word++) {
+            long bits = random.nextLong();
+            long mask = SPREAD_MASKS[(int) (bits & 127)]
+                    | SPREAD_MASKS[(int) (bits >>> 7 & 127)] << 21
+                    | SPREAD_MASKS[(int) (bits >>> 14 & 127)] << 42;
+
+            childGenome[childOffset + word] = fatherGenome[fatherOffset + word] & ~mask
+                    | motherGenome[motherOffset + word] & mask;
         }
+    }
 
-        int firstRandomIndex = random.nextInt(boundary);
-        int firstAgentId = availableAgentIndexes.remove(firstRandomIndex);
+    public static int randomAgentIndex(int numAgents, int firstExcluded, int secondExcluded, StreamRandom random) {
+        int lowExcluded = Math.min(firstExcluded, secondExcluded);
+        int highExcluded = Math.max(firstExcluded, secondExcluded);
+        int numExcluded = (lowExcluded >= 0 ? 1 : 0) + (highExcluded >= 0 ? 1 : 0);
 
-        int secondRandomIndex = random.nextInt(boundary - 1);
-        int secondAgentId = availableAgentIndexes.remove(secondRandomIndex);
+        // draw among the remaining agents, then step over the excluded indexes in order
+        int agentIndex = random.nextInt(numAgents - numExcluded);
+        if (lowExcluded >= 0 && agentIndex >= lowExcluded) agentIndex++;
+        if (highExcluded >= 0 && agentIndex >= highExcluded) agentIndex++;
 
-        return Pair.with(firstAgentId, secondAgentId);
+        return agentIndex;
     }
-}
\ No newline at end of file
+}
@@ -2,20 +2,34 @@ package algorithms.genetic;
 
 import logs.Logger;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Double-buffered population. The genomes of the current generation and of the one
+ * being bred live in two preallocated arenas of {@code numAgents * numWords} longs,
+ * viewed through pooled agents, and {@link #swap()} exchanges their roles once a
+ * generation is bred. Nothing is allocated from one generation to the next.
+ */
 public class Population {
 
-    private final List<Agent> agents;
+    // larger populations are only partly written out, their full dump would not fit in memory
+    public static final int MAX_DUMPED_AGENTS = 1000;
+
+    private List<Agent> agents;
+    private List<Agent> nextAgents;
+
+    private long[] genomes;
+    private long[] nextGenomes;
 
     private final int numAgents;
     private final int numAgentMoves;
-    private final int numPossibleMoves = 8;
+    private final int numWords;
+
+    private final int[] mutationCandidates;
 
     private final String identifier;
-    private final String[] possibleMoves = {"N", "S", "E", "W", "NE", "NW", "SE", "SW"};
 
     private final Logger logger;
 
@@ -23,7 +37,12 @@ public class Population {
         this.identifier = identifier;
         this.numAgents = numAgents;
         this.numAgentMoves = numAgentMoves;
-        this.agents = new ArrayList<>();
+        this.numWords = Agent.numWords(numAgentMoves);
+        this.genomes = new long[numAgents * numWords];
+        this.nextGenomes = new long[numAgents * numWords];
+        this.agents = createAgents(genomes);
+        this.nextAgents = createAgents(nextGenomes);
+        this.mutationCandidates = new int[Math.max(numAgents - 1, 0)];
         this.logger = Logger.getInstance();
     }
 
@@ -37,74 +56,178 @@ public class Population {
         return this.numAgents;
     }
 
+    public int getNumWords() {
+        return this.numWords;
+    }
+
     public List<Agent> getAgents() {
         return this.agents;
     }
 
-    // SETTERS
-
-    public void addAgent(Agent agent) {
-        agents.add(agent);
+    public List<Agent> getNextAgents() {
+        return this.nextAgents;
     }
 
-    public void copy(Population otherPopulation) {
-        Collections.copy(this.agents, otherPopulation.agents);
+    public long[] getGenomes() {
+        return this.genomes;
     }
 
-    public void clear() {
-        agents.clear();
+    // SETTERS
+
+    public void swap() {
+        List<Agent> swapAgents = agents;
+        agents = nextAgents;
+        nextAgents = swapAgents;
+
+        long[] swapGenomes = genomes;
+        genomes = nextGenomes;
+        nextGenomes = swapGenomes;
     }
 
     // OTHERS
 
-    public void start(int startX, int startY) {
-        Random random = new Random();
+    private List<Agent> createAgents(long[] genomeArena) {
+        List<Agent> pooledAgents = new ArrayList<>(numAgents);
 
+        // an agent's identifier is its index, in both buffers
         for (int agentId = 0; agentId < numAgents; agentId++) {
-            Agent agent = new Agent(startX, startY, agentId);
+            pooledAgents.add(new Agent(agentId, numAgentMoves, genomeArena, agentId * numWords));
+        }
+        return Collections.unmodifiableList(pooledAgents);
+    }
+
+    public void start(int startX, int startY, RandomStreams randomStreams) {
+        StreamRandom random = new StreamRandom(0);
+
+        for (Agent agent : agents) {
+            randomStreams.reseed(random, 0, RandomStreams.START, agent.getIdentifier());
+            agent.setCoordinate(startX, startY);
+            randomize(agent, random);
+        }
+    }
+
+    /**
+     * Replaces the current generation with saved genomes, which are all scored again.
+     */
+    public void restore(long[] savedGenomes) {
+        System.arraycopy(savedGenomes, 0, genomes, 0, genomes.length);
+
+        for (Agent agent : agents) {
+            agent.reset();
+            agent.resetCoordinates();
+            agent.markDirty(0);
+        }
+    }
+
+    /**
+     * Draws new random genomes for every agent of the current generation but the best
+     * one, which is kept in slot 0.
+     */
+    public void restart(int generation, RandomStreams randomStreams) {
+        StreamRandom random = new StreamRandom(0);
+        Agent bestAgent = agents.get(0);
+
+        for (Agent agent : agents) {
+            if (agent.getScore() < bestAgent.getScore()) {
+                bestAgent = agent;
+            }
+        }
+        if (bestAgent != agents.get(0)) {
+            agents.get(0).copyFrom(bestAgent);
+        }
+
+        for (int agentId = 1; agentId < numAgents; agentId++) {
+            randomStreams.reseed(random, generation, RandomStreams.START, agentId);
+            randomize(agents.get(agentId), random);
+        }
+    }
+
+    /**
+     * Draws every genome as a random walk from the start cell that only takes directions
+     * into walkable cells, and never steps straight back unless it is at a dead end.
+     */
+    public void startWalks(int startX, int startY, RandomStreams randomStreams, TransitionTable table) {
+        StreamRandom random = new StreamRandom(0);
+        int startCell = table.cell(startX, startY);
+
+        for (Agent agent : agents) {
+            randomStreams.reseed(random, 0, RandomStreams.START, agent.getIdentifier());
+            agent.reset();
+            agent.setCoordinate(startX, startY);
+
+            int cell = startCell;
+            int previousDirection = -1;
 
             for (int move = 0; move < numAgentMoves; move++) {
-                String agentMove = possibleMoves[random.nextInt(numPossibleMoves)];
-                agent.getMoves().add(agentMove);
+                int openDirections = table.openDirections(cell);
+                int forwardDirections = previousDirection < 0 ? openDirections
+                        : openDirections & ~(1 << Agent.MOVE_OPPOSITES[previousDirection]);
+                if (forwardDirections != 0) openDirections = forwardDirections;
+
+                // a walled-in cell has no open direction, any move is as bad as another
+                int direction = openDirections == 0 ? random.nextInt(Agent.NUM_POSSIBLE_MOVES)
+                        : nthDirection(openDirections, random.nextInt(Integer.bitCount(openDirections)));
+
+                agent.setMove(move, direction);
+                cell = table.nextCell(cell, direction, table.outcome(cell, direction));
+                previousDirection = direction;
             }
-            this.agents.add(agent);
+            agent.markDirty(0);
         }
     }
 
-    public void mutate(int agentMutationRatio, int movementMutationRatio) {
-        Random random = new Random();
+    private static int nthDirection(int directions, int n) {
+        for (int skipped = 0; skipped < n; skipped++) {
+            directions &= directions - 1;
+        }
+        return Integer.numberOfTrailingZeros(directions);
+    }
+
+    private void randomize(Agent agent, StreamRandom random) {
+        agent.reset();
+        agent.markDirty(0);
+
+        // every 3-bit field of a random word is a uniformly drawn direction
+        for (int word = 0; word < numWords; word++) {
+            int numWordMoves = Math.min(Agent.MOVES_PER_WORD, numAgentMoves - word * Agent.MOVES_PER_WORD);
+            genomes[agent.getGenomeOffset() + word] =
+                    random.nextLong() & ((1L << (Agent.BITS_PER_MOVE * numWordMoves)) - 1);
+        }
+    }
 
-        String currMove, newMove;
+    /**
+     * Mutates the bred generation, leaving the elite in slot 0 untouched.
+     */
+    public void mutate(int agentMutationRatio, int movementMutationRatio, StreamRandom random) {
+
+        int currMove, newMove;
         int currMoveIdx, agentIdx;
-        int numAgentIdxRange = numAgents;
 
-        int numAgentMutations = (int)Math.ceil(numAgents*(agentMutationRatio/100.0));
+        int numAgentMutations = Math.min((int)Math.ceil(numAgents*(agentMutationRatio/100.0)), numAgents - 1);
         int numMovementMutations = (int)Math.ceil(numAgentMoves*(movementMutationRatio/100.0));
 
-        List<Integer> availableAgentIndexes = IntStream.rangeClosed(0, numAgents - 1)
-                .boxed()
-                .collect(Collectors.toList());
+        for (int candidate = 0; candidate < mutationCandidates.length; candidate++) {
+            mutationCandidates[candidate] = candidate + 1;
+        }
 
         for (int numAgentMutation = 0; numAgentMutation < numAgentMutations; numAgentMutation++) {
-            agentIdx = availableAgentIndexes.remove(random.nextInt((numAgentIdxRange--)-1))+1;
-            Agent mutantAgent = agents.get(agentIdx);
+            // partial Fisher-Yates: every agent is mutated at most once
+            int pick = numAgentMutation + random.nextInt(mutationCandidates.length - numAgentMutation);
+            agentIdx = mutationCandidates[pick];
+            mutationCandidates[pick] = mutationCandidates[numAgentMutation];
+            mutationCandidates[numAgentMutation] = agentIdx;
+
+            Agent mutantAgent = nextAgents.get(agentIdx);
 
             for (int numMoveMutation = 0; numMoveMutation <= numMovementMutations; numMoveMutation++) {
 
                 currMoveIdx = random.nextInt(numAgentMoves);
-                currMove = mutantAgent.getMoves().get(currMoveIdx);
+                currMove = mutantAgent.getMove(currMoveIdx);
 
-                List<String> filteredPossibleMoves = new ArrayList<>();
-                for (int move = 0; move < numPossibleMoves; move ++) {
-                    String possibleMove = possibleMoves[move];
-                    if (!possibleMove.equals(currMove)) {
-                        filteredPossibleMoves.add(possibleMove);
-                    }
-                }
+                // any of the other seven directions
+                newMove = (currMove + 1 + random.nextInt(Agent.NUM_POSSIBLE_MOVES - 1)) % Agent.NUM_POSSIBLE_MOVES;
 
-                newMove = filteredPossibleMoves.get(random.nextInt(numPossibleMoves-1));
-
-                mutantAgent.getMoves().set(currMoveIdx, newMove);
+                mutantAgent.setMove(currMoveIdx, newMove);
             }
         }
     }
@@ -124,11 +247,15 @@ public class Population {
         populationStrBuilder.append("[POPULATION] ").append(identifier).append(":\n");
 
         for (Agent agent : agents) {
+            if (agent.getIdentifier() == MAX_DUMPED_AGENTS) {
+                populationStrBuilder.append("... ").append(numAgents - MAX_DUMPED_AGENTS).append(" more agents\n");
+                break;
+            }
             populationStrBuilder
                     .append("[Agent] ")
                     .append(agent.getIdentifier())
                     .append(": ")
-                    .append(agent.getMoves())
+                    .append(agent.movesToString())
                     .append(" | Score = ")
                     .append(agent.getScore())
                     .append("\n");
@@ -0,0 +1,295 @@
+package algorithms.genetic;
+
+// built-in dependencies
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+// external dependencies
+import logs.LogLevel;
+import logs.Logger;
+
+/**
+ * Periodic binary checkpoint of a genetic algorithm run, little-endian throughout.
+ *
+ * <pre>
+ *  0  magic            'P' 'F' 'G' 'A'
+ *  4  version          short
+ *  6  reserved         short
+ *  8  seed             long
+ * 16  generation       int
+ * 20  number of agents int
+ * 24  moves per agent  int
+ * 28  best score       int
+ * 32  maze fingerprint long
+ * 40  genome checksum  int, CRC32 of the genomes
+ * 44  header checksum  int, CRC32 of bytes 0..43
+ * 48  genomes          the population arena, numWords longs per agent
+ * </pre>
+ *
+ * Every random stream of a run is derived from its seed and the generation, so those
+ * two are the whole random state: a run resumed from a checkpoint of generation g
+ * re-scores the saved genomes and breeds exactly as the original run did. The state of
+ * adaptive control is not saved though: with --adaptive-mutation or --stagnation, the
+ * resumed run starts again from the base mutation ratios and no stagnation, and breeds
+ * differently from there on.
+ *
+ * Saving copies the arena into a snapshot and hands it to a writer thread, which writes
+ * a temporary file and renames it over the checkpoint. A checkpoint due while the
+ * previous one is still being written is skipped rather than waited for.
+ */
+public class PopulationCheckpoint {
+
+    public static final int MAGIC = 'P' | 'F' << 8 | 'G' << 16 | 'A' << 24;
+    public static final short VERSION = 1;
+    public static final int DEFAULT_INTERVAL = 10;
+
+    private static final int HEADER_BYTES = 48;
+
+    private final Path path;
+    private final Path temporaryPath;
+    private final int interval;
+    private final ExecutorService writer;
+    private final Logger logger;
+
+    private ByteBuffer snapshot;
+    private Future<?> pendingWrite;
+    private int numWritten;
+    private int numSkipped;
+
+    public PopulationCheckpoint(String path, int interval) {
+        this.path = Paths.get(path);
+        this.temporaryPath = Paths.get(path + ".tmp");
+        this.interval = Math.max(1, interval);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.logger = Logger.getInstance();
+    }
+
+    /**
+     * State read back from a checkpoint file.
+     */
+    public static class Snapshot {
+
+        private final long seed;
+        private final int generation;
+        private final int numAgents;
+        private final int numAgentMoves;
+        private final int bestScore;
+        private final long mazeFingerprint;
+        private final long[] genomes;
+
+        private Snapshot(long seed, int generation, int numAgents, int numAgentMoves, int bestScore,
+                         long mazeFingerprint, long[] genomes) {
+            this.seed = seed;
+            this.generation = generation;
+            this.numAgents = numAgents;
+            this.numAgentMoves = numAgentMoves;
+            this.bestScore = bestScore;
+            this.mazeFingerprint = mazeFingerprint;
+            this.genomes = genomes;
+        }
+
+        // GETTERS
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
+
+        public int getNumAgents() {
+            return numAgents;
+        }
+
+        public int getNumAgentMoves() {
+            return numAgentMoves;
+        }
+
+        public int getBestScore() {
+            return bestScore;
+        }
+
+        public long getMazeFingerprint() {
+            return mazeFingerprint;
+        }
+
+        public long[] getGenomes() {
+            return genomes;
+        }
+    }
+
+    // GETTERS
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getNumWritten() {
+        return numWritten;
+    }
+
+    public int getNumSkipped() {
+        return numSkipped;
+    }
+
+    // OTHERS
+
+    public boolean save(Population population, int generation, long seed, long mazeFingerprint) {
+        if (generation % interval != 0) return false;
+
+        if (pendingWrite != null && !pendingWrite.isDone()) {
+            numSkipped++;
+            return false;
+        }
+        finishPendingWrite();
+
+        long[] genomes = population.getGenomes();
+        int bestScore = Integer.MAX_VALUE;
+        for (Agent agent : population.getAgents()) {
+            bestScore = Math.min(bestScore, agent.getScore());
+        }
+
+        int fileBytes = HEADER_BYTES + 8 * genomes.length;
+        if (snapshot == null || snapshot.capacity() != fileBytes) {
+            snapshot = ByteBuffer.allocateDirect(fileBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        // the only work left on the generation loop is this copy of the arena
+        snapshot.clear();
+        snapshot.position(HEADER_BYTES);
+        snapshot.asLongBuffer().put(genomes);
+
+        snapshot.putInt(0, MAGIC);
+        snapshot.putShort(4, VERSION);
+        snapshot.putShort(6, (short) 0);
+        snapshot.putLong(8, seed);
+        snapshot.putInt(16, generation);
+        snapshot.putInt(20, population.getNumAgents());
+        snapshot.putInt(24, population.getNumAgentMoves());
+        snapshot.putInt(28, bestScore);
+        snapshot.putLong(32, mazeFingerprint);
+
+        pendingWrite = writer.submit(() -> {
+            write(snapshot);
+            return null;
+        });
+        numWritten++;
+        return true;
+    }
+
+    public void close() {
+        finishPendingWrite();
+        writer.shutdown();
+    }
+
+    private void finishPendingWrite() {
+        if (pendingWrite == null) return;
+
+        try {
+            pendingWrite.get();
+        }
+        catch (InterruptedException | ExecutionException exception) {
+            // a failed checkpoint does not stop the run, the previous one is still on disk
+            System.out.println("Checkpoint failed. Reason: " + exception.getMessage());
+            logger.log(LogLevel.WARN, "\nCheckpoint failed. Reason: " + exception.getMessage() + "\n");
+        }
+        pendingWrite = null;
+    }
+
+    private void write(ByteBuffer file) throws IOException {
+        // checksums are computed here, off the generation loop
+        CRC32 crc = new CRC32();
+        ByteBuffer genomes = file.duplicate();
+        genomes.position(HEADER_BYTES);
+        crc.update(genomes);
+        file.putInt(40, (int) crc.getValue());
+
+        crc.reset();
+        ByteBuffer header = file.duplicate();
+        header.position(0).limit(44);
+        crc.update(header);
+        file.putInt(44, (int) crc.getValue());
+
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer contents = file.duplicate();
+            contents.clear();
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+            channel.force(false);
+        }
+
+        // a crash mid-write leaves the previous checkpoint in place
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Snapshot read(String path) throws IOException {
+        ByteBuffer file;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("truncated checkpoint file");
+            }
+            file = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (file.hasRemaining() && channel.read(file) >= 0) {
+                // keep reading until the whole file is in
+            }
+            file.flip();
+        }
+
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException("not a checkpoint file");
+        }
+        if (file.getShort(4) != VERSION) {
+            throw new IOException("unsupported checkpoint version " + file.getShort(4));
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer header = file.duplicate();
+        header.position(0).limit(44);
+        crc.update(header);
+        if ((int) crc.getValue() != file.getInt(44)) {
+            throw new IOException("checkpoint header checksum mismatch");
+        }
+
+        int numAgents = file.getInt(20);
+        int numAgentMoves = file.getInt(24);
+        long numWords = (long) numAgents * Agent.numWords(numAgentMoves);
+        if (numAgents <= 0 || numAgentMoves <= 0 || file.limit() != HEADER_BYTES + 8 * numWords) {
+            throw new IOException("checkpoint size does not match its header");
+        }
+
+        crc.reset();
+        ByteBuffer genomeBytes = file.duplicate();
+        genomeBytes.position(HEADER_BYTES);
+        crc.update(genomeBytes);
+        if ((int) crc.getValue() != file.getInt(40)) {
+            throw new IOException("checkpoint genome checksum mismatch");
+        }
+
+        long[] genomes = new long[(int) numWords];
+        file.position(HEADER_BYTES);
+        file.asLongBuffer().get(genomes);
+
+        return new Snapshot(file.getLong(8), file.getInt(16), numAgents, numAgentMoves, file.getInt(28),
+                file.getLong(32), genomes);
+    }
+}
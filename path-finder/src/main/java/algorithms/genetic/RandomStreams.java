@@ -0,0 +1,52 @@
+package algorithms.genetic;
+
+/**
+ * Seeded source of the random streams used by the genetic operators.
+ *
+ * Every stream is derived from the run seed, the generation, the operator and the
+ * worker (agent) drawing from it, and never from another stream. A run is therefore
+ * reproduced bit for bit from its seed, whatever order workers are scheduled in, and
+ * no two threads ever share a generator.
+ */
+public class RandomStreams {
+
+    public static final int START = 0;
+    public static final int SELECTION = 1;
+    public static final int CROSSOVER = 2;
+    public static final int MUTATION = 3;
+
+    private final long seed;
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    // GETTERS
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // OTHERS
+
+    public StreamRandom stream(int generation, int operator, int worker) {
+        return new StreamRandom(streamSeed(generation, operator, worker));
+    }
+
+    public StreamRandom reseed(StreamRandom random, int generation, int operator, int worker) {
+        random.reseed(streamSeed(generation, operator, worker));
+        return random;
+    }
+
+    private long streamSeed(int generation, int operator, int worker) {
+        long streamSeed = mix(seed + 0x9e3779b97f4a7c15L);
+        streamSeed = mix(streamSeed ^ generation);
+        return mix(streamSeed ^ ((long) operator << 32 | (worker & 0xffffffffL)));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,24 @@
+package algorithms.genetic;
+
+/**
+ * How the genomes of the first generation are drawn.
+ */
+public enum SeedingStrategy {
+
+    // every move is a uniformly drawn direction
+    UNIFORM,
+
+    // every genome is a random walk over the walkable cells of the maze
+    WALK;
+
+    public static SeedingStrategy fromName(String name) {
+        switch (name) {
+            case "uniform":
+                return UNIFORM;
+            case "walk":
+                return WALK;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package algorithms.genetic;
+
+/**
+ * SplitMix64 generator, the algorithm behind {@link java.util.SplittableRandom}, that can
+ * be reseeded in place. The genetic operators reseed one instance per stream instead of
+ * allocating a generator per child and generation.
+ */
+public final class StreamRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    public StreamRandom(long seed) {
+        this.state = seed;
+    }
+
+    // SETTERS
+
+    public void reseed(long seed) {
+        this.state = seed;
+    }
+
+    // OTHERS
+
+    public long nextLong() {
+        long value = (state += GOLDEN_GAMMA);
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    public int nextInt(int bound) {
+        int bits;
+        int value;
+
+        // reject the top values that would bias the remainder
+        do {
+            bits = (int) (nextLong() >>> 33);
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+
+        return value;
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+}
@@ -0,0 +1,127 @@
+package algorithms.genetic;
+
+// external dependencies
+import maze.MazeGrid;
+
+/**
+ * Movement rules of the agents, precomputed once per maze.
+ *
+ * Every cell holds a 2-bit kind: a free cell, the way out, a wall, or the outside of the
+ * maze. The maze is surrounded by a ring of outside cells, so the outcome of a gene is
+ * the kind of the cell it steps onto, one lookup with no bounds check, and the next cell
+ * is the current one plus a per-direction step when the agent moves. Cells are indexed
+ * in that padded layout, see {@link #cell}. Packed 32 to a long, the kinds of a 16k x 16k
+ * maze take 64 MB, a quarter of a byte per cell.
+ */
+public class TransitionTable {
+
+    public static final int MOVED = 0;
+    public static final int WALL = 1;
+    public static final int OUT_OF_BOUNDS = 2;
+    public static final int EXIT = 3;
+
+    // score delta of each outcome
+    public static final int[] PENALTIES = {0, 5, 20, 0};
+
+    private static final int KINDS_PER_WORD = 32;
+
+    private final int mazeSize;
+    private final int stride;
+    private final long[] kinds;
+    private final int[] steps;
+
+    private MazeGrid maze;
+    private long mazeFingerprint;
+
+    public TransitionTable(int mazeSize) {
+        long numCells = (long) (mazeSize + 2) * (mazeSize + 2);
+        if (numCells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maze of side " + mazeSize
+                    + " is too large for a transition table, at most " + (MazeGrid.MAX_SIZE - 2));
+        }
+
+        this.mazeSize = mazeSize;
+        this.stride = mazeSize + 2;
+        this.kinds = new long[(int) ((numCells + KINDS_PER_WORD - 1) / KINDS_PER_WORD)];
+        this.steps = new int[Agent.NUM_POSSIBLE_MOVES];
+
+        for (int direction = 0; direction < Agent.NUM_POSSIBLE_MOVES; direction++) {
+            steps[direction] = Agent.MOVE_DX[direction] * stride + Agent.MOVE_DY[direction];
+        }
+    }
+
+    // GETTERS
+
+    public int getMazeSize() {
+        return mazeSize;
+    }
+
+    public boolean isBuiltFor(MazeGrid maze) {
+        return this.maze == maze && mazeFingerprint == maze.fingerprint();
+    }
+
+    public int cell(int x, int y) {
+        return (x + 1) * stride + y + 1;
+    }
+
+    public int x(int cell) {
+        return cell / stride - 1;
+    }
+
+    public int y(int cell) {
+        return cell % stride - 1;
+    }
+
+    public int outcome(int cell, int direction) {
+        int nextCell = cell + steps[direction];
+        return (int) (kinds[nextCell >>> 5] >>> (2 * nextCell)) & 3;
+    }
+
+    public int openDirections(int cell) {
+        int openDirections = 0;
+
+        // one bit per direction that moves the agent
+        for (int direction = 0; direction < Agent.NUM_POSSIBLE_MOVES; direction++) {
+            int outcome = outcome(cell, direction);
+            if (outcome == MOVED || outcome == EXIT) openDirections |= 1 << direction;
+        }
+        return openDirections;
+    }
+
+    public int nextCell(int cell, int direction, int outcome) {
+        // only free cells and the way out are entered
+        return (outcome & 1) == outcome >>> 1 ? cell + steps[direction] : cell;
+    }
+
+    // OTHERS
+
+    public void build(MazeGrid maze) {
+        this.maze = maze;
+        this.mazeFingerprint = maze.fingerprint();
+
+        // the ring around the maze is outside, everything else starts as a wall
+        for (int word = 0; word < kinds.length; word++) {
+            kinds[word] = 0x5555555555555555L;
+        }
+        for (int border = 0; border < stride; border++) {
+            setKind(border, OUT_OF_BOUNDS);
+            setKind((stride - 1) * stride + border, OUT_OF_BOUNDS);
+            setKind(border * stride, OUT_OF_BOUNDS);
+            setKind(border * stride + stride - 1, OUT_OF_BOUNDS);
+        }
+
+        for (int x = 0; x < mazeSize; x++) {
+            for (int y = 0; y < mazeSize; y++) {
+                if (maze.isWalkable(x, y)) setKind(cell(x, y), MOVED);
+            }
+        }
+        for (int exit : maze.getExits()) {
+            setKind(cell(exit / mazeSize, exit % mazeSize), EXIT);
+        }
+    }
+
+    private void setKind(int cell, int kind) {
+        int shift = 2 * (cell % KINDS_PER_WORD);
+        kinds[cell >>> 5] = kinds[cell >>> 5] & ~(3L << shift) | (long) kind << shift;
+    }
+}
@@ -0,0 +1,283 @@
+package algorithms.genetic.island;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// external dependencies
+import logs.LogLevel;
+import logs.Logger;
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+// project dependencies
+import algorithms.genetic.Agent;
+import algorithms.genetic.GeneticAlgorithm;
+import algorithms.genetic.Population;
+import algorithms.genetic.SeedingStrategy;
+
+/**
+ * Island-model genetic algorithm.
+ *
+ * Each island evolves its own {@link Population} on its own thread. Every
+ * {@code migrationInterval} generations an island sends copies of its best agents to
+ * the islands its {@link MigrationTopology} points at, and replaces its worst agents
+ * with whatever migrants are waiting for it. Islands never wait on each other, and the
+ * whole run stops as soon as one island finds the way out.
+ *
+ * A process may run only some of the islands (see {@link #setLocalIslands}), the others
+ * being reached through a {@link MigrationChannel} such as the {@link SocketMigrationChannel}.
+ */
+public class IslandModel {
+
+    public static final int DEFAULT_MIGRATION_INTERVAL = 10;
+    public static final int DEFAULT_NUM_MIGRANTS = 2;
+
+    private final int numIslands;
+    private final int numGenerations;
+    private final int numAgents;
+    private final int agentMutationRatio;
+    private final int movementMutationRatio;
+    private final int migrationInterval;
+    private final int numMigrants;
+    private final MigrationTopology topology;
+    private final long seed;
+    private final Logger logger;
+
+    private MigrationChannel migrationChannel;
+    private int firstLocalIsland;
+    private int numLocalIslands;
+    private SeedingStrategy seeding;
+
+    private final AtomicBoolean solved;
+    private volatile int solverIsland;
+    private volatile int solverGeneration;
+    private volatile List<Pair<Integer, Integer>> solverPath;
+    private long totalGenerations;
+
+    public IslandModel(int numIslands, int numGenerations, int numAgents, int agentMutationRatio,
+                       int movementMutationRatio, int migrationInterval, int numMigrants,
+                       MigrationTopology topology, long seed) {
+        this.numIslands = numIslands;
+        this.numGenerations = numGenerations;
+        this.numAgents = numAgents;
+        this.agentMutationRatio = agentMutationRatio;
+        this.movementMutationRatio = movementMutationRatio;
+        this.migrationInterval = migrationInterval;
+        this.numMigrants = numMigrants;
+        this.topology = topology;
+        this.seed = seed;
+        this.logger = Logger.getInstance();
+        this.solved = new AtomicBoolean(false);
+        this.firstLocalIsland = 0;
+        this.numLocalIslands = numIslands;
+        this.seeding = SeedingStrategy.UNIFORM;
+    }
+
+    // GETTERS
+
+    public int getNumIslands() {
+        return numIslands;
+    }
+
+    public int getSolverIsland() {
+        return solverIsland;
+    }
+
+    public int getSolverGeneration() {
+        return solverGeneration;
+    }
+
+    public long getTotalGenerations() {
+        return totalGenerations;
+    }
+
+    // SETTERS
+
+    public void setMigrationChannel(MigrationChannel migrationChannel) {
+        this.migrationChannel = migrationChannel;
+    }
+
+    public void setSeeding(SeedingStrategy seeding) {
+        this.seeding = seeding;
+    }
+
+    public void setLocalIslands(int firstLocalIsland, int numLocalIslands) {
+        this.firstLocalIsland = firstLocalIsland;
+        this.numLocalIslands = numLocalIslands;
+    }
+
+    // OTHERS
+
+    public Pair<Integer, Integer> findPath(final MazeGrid maze, final int numAgentMoves) {
+
+        System.out.print("\n\n//// Island model Execution ////\n\n");
+        logger.log("\n\n//// Island model Execution ////\n\n");
+        logger.log("Seed: " + seed + ", islands: " + numIslands + ", topology: " + topology
+                + ", migration every " + migrationInterval + " generations\n");
+
+        if (migrationChannel == null) {
+            migrationChannel = new LocalMigrationChannel(numIslands);
+        }
+        solved.set(false);
+        solverPath = null;
+
+        long startTime = System.nanoTime();
+        ExecutorService islandThreads = Executors.newFixedThreadPool(numLocalIslands);
+        List<Callable<Integer>> islands = new ArrayList<>(numLocalIslands);
+
+        for (int island = firstLocalIsland; island < firstLocalIsland + numLocalIslands; island++) {
+            final int islandId = island;
+            islands.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return runIsland(islandId, maze, numAgentMoves);
+                }
+            });
+        }
+
+        totalGenerations = 0;
+        try {
+            for (Future<Integer> island : islandThreads.invokeAll(islands)) {
+                totalGenerations += island.get();
+            }
+        }
+        catch (InterruptedException | ExecutionException exception) {
+            System.out.println("Island model failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+        finally {
+            islandThreads.shutdown();
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+        String islandStats = String.format("\n\nIslands ran %d generations in %.2f s (%.1f generations/s)\n\n",
+                totalGenerations, elapsedSeconds, totalGenerations / elapsedSeconds);
+        System.out.print(islandStats);
+        logger.log(islandStats);
+
+        if (!solved.get() && migrationChannel.isStopped()) {
+            System.out.print("\n\nStopped: another island found the way out\n\n");
+            logger.log("\n\nStopped: another island found the way out\n\n");
+            return Pair.with(-1, -1);
+        }
+
+        if (!solved.get()) {
+            System.out.print("\n\nDid not found path :(\n\n");
+            return Pair.with(-1, -1);
+        }
+
+        logger.log("\n\nFound path :) on island " + solverIsland + " at generation " + solverGeneration
+                + "\n\n" + solverPath);
+        System.out.print("\n\nFound path :) on island " + solverIsland + " at generation " + solverGeneration
+                + "\n\n" + solverPath);
+
+        return solverPath.get(solverPath.size() - 1);
+    }
+
+    private int runIsland(int island, MazeGrid maze, int numAgentMoves) {
+        // islands draw from distinct seeds, so they do not start as copies of each other
+        long islandSeed = seed + island * 0x9e3779b97f4a7c15L;
+
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(numGenerations, numAgents,
+                agentMutationRatio, movementMutationRatio, 1, islandSeed);
+        geneticAlgorithm.setSeeding(seeding);
+        Population population = new Population("island " + island, numAgents, numAgentMoves);
+        geneticAlgorithm.startPopulation(population, maze);
+
+        int[] targets = topology.targets(island, numIslands);
+        int generation = 0;
+
+        for (; generation < numGenerations && !solved.get() && !migrationChannel.isStopped(); generation++) {
+
+            geneticAlgorithm.heuristicFunction(population, maze);
+
+            if (generation > 0 && generation % migrationInterval == 0) {
+                migrate(geneticAlgorithm, population, maze, island, generation, targets);
+            }
+
+            Agent solverAgent = population.searchSolution();
+
+            if (solverAgent != null) {
+                if (solved.compareAndSet(false, true)) {
+                    solverIsland = island;
+                    solverGeneration = generation;
+                    solverPath = geneticAlgorithm.replayPath(solverAgent, maze);
+                    migrationChannel.publishSolution(island, generation, solverPath.get(solverPath.size() - 1));
+                }
+                return generation + 1;
+            }
+
+            geneticAlgorithm.breed(population, generation);
+        }
+        return generation;
+    }
+
+    private void migrate(GeneticAlgorithm geneticAlgorithm, Population population, MazeGrid maze,
+                         int island, int generation, int[] targets) {
+        List<Agent> agents = population.getAgents();
+        int[] rankedAgents = rankAgents(agents);
+        int numEmigrants = Math.min(numMigrants, agents.size());
+
+        // emigrants are copies, the island keeps its best agents
+        for (int migrant = 0; migrant < numEmigrants; migrant++) {
+            long[] moves = agents.get(rankedAgents[migrant]).getMoves();
+
+            for (int target : targets) {
+                migrationChannel.send(target, moves);
+            }
+        }
+
+        // immigrants take the place of the worst agents, at most half of the island and never its best
+        int numImmigrants = 0;
+        int slot = agents.size() - 1;
+        int lastSlot = Math.max(1, agents.size() / 2);
+        long[] moves;
+
+        while ((moves = migrationChannel.receive(island)) != null) {
+            // a migrant bred for another maze does not fit this one
+            if (moves.length != population.getNumWords()) {
+                logger.log(LogLevel.WARN, "\nIsland " + island + " dropped a migrant of " + moves.length
+                        + " words\n");
+                continue;
+            }
+            if (slot >= lastSlot) {
+                agents.get(rankedAgents[slot--]).copyMoves(moves);
+                numImmigrants++;
+            }
+        }
+
+        // only the immigrants are dirty, so this evaluates just them
+        if (numImmigrants > 0) {
+            geneticAlgorithm.heuristicFunction(population, maze);
+        }
+
+        if (logger.isEnabled(LogLevel.DEBUG)) {
+            logger.log(LogLevel.DEBUG, "\nIsland " + island + " generation " + generation + ": sent " + numEmigrants * targets.length
+                    + ", received " + numImmigrants + ", best score " + agents.get(rankedAgents[0]).getScore() + "\n");
+        }
+    }
+
+    private static int[] rankAgents(List<Agent> agents) {
+        long[] keys = new long[agents.size()];
+
+        // score in the high half, index in the low half: sorting the keys ranks the agents
+        for (int agent = 0; agent < keys.length; agent++) {
+            keys[agent] = (long) agents.get(agent).getScore() << 32 | agent;
+        }
+        Arrays.sort(keys);
+
+        int[] rankedAgents = new int[keys.length];
+        for (int rank = 0; rank < keys.length; rank++) {
+            rankedAgents[rank] = (int) keys[rank];
+        }
+        return rankedAgents;
+    }
+}
@@ -0,0 +1,32 @@
+package algorithms.genetic.island;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-process {@link MigrationChannel}: one lock-free inbox queue per island.
+ */
+public class LocalMigrationChannel implements MigrationChannel {
+
+    private final List<ConcurrentLinkedQueue<long[]>> inboxes;
+
+    public LocalMigrationChannel(int numIslands) {
+        this.inboxes = new ArrayList<>(numIslands);
+
+        for (int island = 0; island < numIslands; island++) {
+            inboxes.add(new ConcurrentLinkedQueue<long[]>());
+        }
+    }
+
+    @Override
+    public void send(int targetIsland, long[] moves) {
+        inboxes.get(targetIsland).offer(moves);
+    }
+
+    @Override
+    public long[] receive(int island) {
+        return inboxes.get(island).poll();
+    }
+}
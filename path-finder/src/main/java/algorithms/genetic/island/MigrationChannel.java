@@ -0,0 +1,32 @@
+package algorithms.genetic.island;
+
+// external dependencies
+import org.javatuples.Pair;
+
+/**
+ * Carries migrant genomes between islands. A genome is the packed move words of one
+ * agent; receivers only read it, so the same array may be handed to several islands.
+ */
+public interface MigrationChannel {
+
+    void send(int targetIsland, long[] moves);
+
+    /**
+     * Returns the next genome waiting for the island, or null when there is none. Never
+     * blocks, so islands keep evolving whatever their neighbours are doing.
+     */
+    long[] receive(int island);
+
+    /**
+     * Tells the other islands that this one found the way out.
+     */
+    default void publishSolution(int island, int generation, Pair<Integer, Integer> exit) {
+    }
+
+    /**
+     * Whether an island elsewhere already found the way out.
+     */
+    default boolean isStopped() {
+        return false;
+    }
+}
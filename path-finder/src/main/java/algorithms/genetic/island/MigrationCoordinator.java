@@ -0,0 +1,257 @@
+package algorithms.genetic.island;
+
+// built-in dependencies
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+
+// external dependencies
+import logs.LogLevel;
+import logs.Logger;
+
+/**
+ * Coordinator of a multi-process island run.
+ *
+ * Waits for one connection per island, assigns each worker its island and the shared
+ * seed, then only routes frames: migrants go to the worker of their target island,
+ * and the first solution is broadcast as a stop to every worker. The coordinator never
+ * loads the maze nor evolves anything itself.
+ *
+ * Each worker loads its own maze, so a worker whose maze or genome length differs from
+ * the first worker's is rejected, and another one is awaited for its island.
+ */
+public class MigrationCoordinator {
+
+    private final int numIslands;
+    private final long seed;
+    private final Logger logger;
+
+    private ServerSocket serverSocket;
+    private Socket[] sockets;
+    private DataOutputStream[] outputs;
+    private CountDownLatch finishedWorkers;
+
+    // maze of the first worker, which every other worker must share
+    private long mazeFingerprint;
+    private int numWords = -1;
+
+    private boolean solved;
+    private int solverIsland;
+    private int solverGeneration;
+    private int exitX;
+    private int exitY;
+    private long totalGenerations;
+
+    public MigrationCoordinator(int numIslands, long seed) {
+        this.numIslands = numIslands;
+        this.seed = seed;
+        this.logger = Logger.getInstance();
+    }
+
+    // GETTERS
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public synchronized boolean isSolved() {
+        return solved;
+    }
+
+    public synchronized int getSolverIsland() {
+        return solverIsland;
+    }
+
+    public synchronized int getSolverGeneration() {
+        return solverGeneration;
+    }
+
+    public synchronized int getExitX() {
+        return exitX;
+    }
+
+    public synchronized int getExitY() {
+        return exitY;
+    }
+
+    public synchronized long getTotalGenerations() {
+        return totalGenerations;
+    }
+
+    // OTHERS
+
+    public void bind(int port) throws IOException {
+        serverSocket = new ServerSocket(port);
+    }
+
+    public void run() throws IOException, InterruptedException {
+        sockets = new Socket[numIslands];
+        outputs = new DataOutputStream[numIslands];
+        DataInputStream[] inputs = new DataInputStream[numIslands];
+        finishedWorkers = new CountDownLatch(numIslands);
+
+        try {
+            // workers are given islands in the order they connect
+            for (int island = 0; island < numIslands; ) {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+                if (input.readByte() != MigrationProtocol.HELLO || input.readInt() != MigrationProtocol.MAGIC
+                        || input.readInt() != MigrationProtocol.VERSION) {
+                    socket.close();
+                    throw new IOException("worker " + socket.getRemoteSocketAddress() + " speaks another protocol");
+                }
+
+                long workerMazeFingerprint = input.readLong();
+                int workerNumWords = input.readInt();
+                if (workerNumWords < 0 || workerNumWords > MigrationProtocol.MAX_WORDS) {
+                    socket.close();
+                    throw new IOException("worker " + socket.getRemoteSocketAddress() + " sent a genome length of "
+                            + workerNumWords + " words");
+                }
+                if (numWords < 0) {
+                    mazeFingerprint = workerMazeFingerprint;
+                    numWords = workerNumWords;
+                }
+                else if (workerMazeFingerprint != mazeFingerprint || workerNumWords != numWords) {
+                    output.writeByte(MigrationProtocol.REJECT);
+                    output.flush();
+                    socket.close();
+
+                    logger.log(LogLevel.WARN, "\nWorker " + socket.getRemoteSocketAddress()
+                            + " rejected: its maze differs from the first worker's\n");
+                    continue;
+                }
+
+                sockets[island] = socket;
+                outputs[island] = output;
+                inputs[island] = input;
+
+                logger.log("\nWorker " + socket.getRemoteSocketAddress() + " joined as island " + island + "\n");
+                island++;
+            }
+
+            // islands only start once every worker is connected, so no migrant is sent to nobody
+            for (int island = 0; island < numIslands; island++) {
+                synchronized (outputs[island]) {
+                    outputs[island].writeByte(MigrationProtocol.ASSIGN);
+                    outputs[island].writeInt(island);
+                    outputs[island].writeInt(numIslands);
+                    outputs[island].writeLong(seed);
+                    outputs[island].flush();
+                }
+            }
+
+            for (int island = 0; island < numIslands; island++) {
+                final int workerIsland = island;
+                final DataInputStream input = inputs[island];
+
+                Thread router = new Thread(() -> routeFrames(workerIsland, input), "migration-router-" + island);
+                router.setDaemon(true);
+                router.start();
+            }
+
+            finishedWorkers.await();
+        }
+        finally {
+            for (Socket socket : sockets) {
+                if (socket != null) socket.close();
+            }
+            serverSocket.close();
+        }
+    }
+
+    private void routeFrames(int island, DataInputStream input) {
+        try {
+            while (true) {
+                byte type = input.readByte();
+
+                if (type == MigrationProtocol.MIGRANT) {
+                    int targetIsland = input.readInt();
+                    int migrantWords = input.readInt();
+                    if (targetIsland < 0 || targetIsland >= numIslands || migrantWords != numWords) {
+                        throw new IOException("invalid migrant frame from island " + island);
+                    }
+
+                    long[] moves = new long[migrantWords];
+                    for (int word = 0; word < migrantWords; word++) {
+                        moves[word] = input.readLong();
+                    }
+                    forward(targetIsland, moves);
+                }
+                else if (type == MigrationProtocol.SOLVED) {
+                    recordSolution(input.readInt(), input.readInt(), input.readInt(), input.readInt());
+                }
+                else if (type == MigrationProtocol.DONE) {
+                    input.readInt();
+                    synchronized (this) {
+                        totalGenerations += input.readInt();
+                    }
+                    break;
+                }
+                else {
+                    throw new IOException("unexpected frame type " + type + " from island " + island);
+                }
+            }
+        }
+        catch (IOException exception) {
+            logger.log(LogLevel.WARN, "\nIsland " + island + " left: " + exception.getMessage() + "\n");
+        }
+        finally {
+            finishedWorkers.countDown();
+        }
+    }
+
+    private void forward(int targetIsland, long[] moves) {
+        DataOutputStream output = outputs[targetIsland];
+
+        try {
+            synchronized (output) {
+                output.writeByte(MigrationProtocol.MIGRANT);
+                output.writeInt(targetIsland);
+                output.writeInt(moves.length);
+                for (long word : moves) {
+                    output.writeLong(word);
+                }
+                output.flush();
+            }
+        }
+        catch (IOException exception) {
+            // the target already finished, its migrants are dropped
+        }
+    }
+
+    private void recordSolution(int island, int generation, int x, int y) {
+        synchronized (this) {
+            if (solved) return;
+
+            solved = true;
+            solverIsland = island;
+            solverGeneration = generation;
+            exitX = x;
+            exitY = y;
+        }
+
+        logger.log("\nIsland " + island + " found the way out at generation " + generation + "\n");
+
+        for (DataOutputStream output : outputs) {
+            try {
+                synchronized (output) {
+                    output.writeByte(MigrationProtocol.STOP);
+                    output.flush();
+                }
+            }
+            catch (IOException exception) {
+                // that worker is gone already
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package algorithms.genetic.island;
+
+/**
+ * Frames exchanged between island workers and the {@link MigrationCoordinator}, all
+ * big-endian as written by {@link java.io.DataOutputStream}. Every frame starts with
+ * its type byte.
+ *
+ * <pre>
+ * HELLO    worker      int magic, int version, long maze fingerprint, int words per genome
+ * ASSIGN   coordinator int island, int number of islands, long seed
+ * REJECT   coordinator (no payload), the worker's maze differs from the first worker's
+ * MIGRANT  both ways   int target island, int number of words, long words...
+ * SOLVED   worker      int island, int generation, int exit x, int exit y
+ * STOP     coordinator (no payload)
+ * DONE     worker      int island, int generations run
+ * </pre>
+ */
+public final class MigrationProtocol {
+
+    public static final int MAGIC = 0x50464741;
+    public static final int VERSION = 2;
+
+    public static final byte HELLO = 1;
+    public static final byte ASSIGN = 2;
+    public static final byte MIGRANT = 3;
+    public static final byte SOLVED = 4;
+    public static final byte STOP = 5;
+    public static final byte DONE = 6;
+    public static final byte REJECT = 7;
+
+    // a genome larger than this is taken as a corrupt frame
+    public static final int MAX_WORDS = 1 << 24;
+
+    private MigrationProtocol() {
+    }
+}
@@ -0,0 +1,39 @@
+package algorithms.genetic.island;
+
+/**
+ * Which islands receive the migrants of an island.
+ */
+public enum MigrationTopology {
+
+    // each island sends to the next one, the last back to the first
+    RING,
+
+    // each island sends to every other one
+    FULL;
+
+    public int[] targets(int island, int numIslands) {
+        if (numIslands < 2) {
+            return new int[0];
+        }
+        if (this == RING) {
+            return new int[]{(island + 1) % numIslands};
+        }
+
+        int[] targets = new int[numIslands - 1];
+        for (int target = 0, slot = 0; target < numIslands; target++) {
+            if (target != island) targets[slot++] = target;
+        }
+        return targets;
+    }
+
+    public static MigrationTopology fromName(String name) {
+        switch (name) {
+            case "ring":
+                return RING;
+            case "full":
+                return FULL;
+            default:
+                return null;
+        }
+    }
+}
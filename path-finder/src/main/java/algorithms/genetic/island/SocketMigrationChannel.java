@@ -0,0 +1,191 @@
+package algorithms.genetic.island;
+
+// built-in dependencies
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// external dependencies
+import org.javatuples.Pair;
+
+/**
+ * Worker end of a multi-process island run: a {@link MigrationChannel} over a TCP
+ * connection to the {@link MigrationCoordinator}, which assigns this worker its island
+ * and routes migrants between workers.
+ *
+ * Incoming frames are read by a daemon thread into a lock-free inbox, so islands poll
+ * migrants exactly as with the {@link LocalMigrationChannel}.
+ */
+public class SocketMigrationChannel implements MigrationChannel, Closeable {
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+
+    private final int island;
+    private final int numIslands;
+    private final long seed;
+
+    private final ConcurrentLinkedQueue<long[]> inbox;
+    private volatile boolean stopped;
+
+    private SocketMigrationChannel(Socket socket, DataInputStream input, DataOutputStream output,
+                                   int island, int numIslands, long seed) {
+        this.socket = socket;
+        this.input = input;
+        this.output = output;
+        this.island = island;
+        this.numIslands = numIslands;
+        this.seed = seed;
+        this.inbox = new ConcurrentLinkedQueue<>();
+    }
+
+    public static SocketMigrationChannel connect(String host, int port, long mazeFingerprint, int numWords)
+            throws IOException {
+        Socket socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+
+        DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        output.writeByte(MigrationProtocol.HELLO);
+        output.writeInt(MigrationProtocol.MAGIC);
+        output.writeInt(MigrationProtocol.VERSION);
+        output.writeLong(mazeFingerprint);
+        output.writeInt(numWords);
+        output.flush();
+
+        byte reply = input.readByte();
+        if (reply == MigrationProtocol.REJECT) {
+            socket.close();
+            throw new IOException("coordinator rejected this worker, its maze differs from the other workers'");
+        }
+        if (reply != MigrationProtocol.ASSIGN) {
+            socket.close();
+            throw new IOException("coordinator did not assign an island");
+        }
+
+        SocketMigrationChannel channel = new SocketMigrationChannel(socket, input, output,
+                input.readInt(), input.readInt(), input.readLong());
+
+        Thread reader = new Thread(channel::readFrames, "migration-reader-" + channel.island);
+        reader.setDaemon(true);
+        reader.start();
+
+        return channel;
+    }
+
+    // GETTERS
+
+    public int getIsland() {
+        return island;
+    }
+
+    public int getNumIslands() {
+        return numIslands;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    // OTHERS
+
+    @Override
+    public void send(int targetIsland, long[] moves) {
+        try {
+            synchronized (output) {
+                output.writeByte(MigrationProtocol.MIGRANT);
+                output.writeInt(targetIsland);
+                output.writeInt(moves.length);
+                for (long word : moves) {
+                    output.writeLong(word);
+                }
+                output.flush();
+            }
+        }
+        catch (IOException exception) {
+            // a lost coordinator ends the run for this worker
+            stopped = true;
+        }
+    }
+
+    @Override
+    public long[] receive(int island) {
+        return inbox.poll();
+    }
+
+    @Override
+    public void publishSolution(int island, int generation, Pair<Integer, Integer> exit) {
+        try {
+            synchronized (output) {
+                output.writeByte(MigrationProtocol.SOLVED);
+                output.writeInt(island);
+                output.writeInt(generation);
+                output.writeInt(exit.getValue0());
+                output.writeInt(exit.getValue1());
+                output.flush();
+            }
+        }
+        catch (IOException exception) {
+            stopped = true;
+        }
+    }
+
+    public void finish(int generations) throws IOException {
+        synchronized (output) {
+            output.writeByte(MigrationProtocol.DONE);
+            output.writeInt(island);
+            output.writeInt(generations);
+            output.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        stopped = true;
+        socket.close();
+    }
+
+    private void readFrames() {
+        try {
+            while (!socket.isClosed()) {
+                byte type = input.readByte();
+
+                if (type == MigrationProtocol.MIGRANT) {
+                    input.readInt();
+                    int numWords = input.readInt();
+                    if (numWords < 0 || numWords > MigrationProtocol.MAX_WORDS) {
+                        throw new IOException("invalid migrant of " + numWords + " words");
+                    }
+
+                    long[] moves = new long[numWords];
+                    for (int word = 0; word < numWords; word++) {
+                        moves[word] = input.readLong();
+                    }
+                    inbox.offer(moves);
+                }
+                else if (type == MigrationProtocol.STOP) {
+                    stopped = true;
+                }
+                else {
+                    throw new IOException("unexpected frame type " + type);
+                }
+            }
+        }
+        catch (IOException exception) {
+            // the socket was closed, or the coordinator went away
+            stopped = true;
+        }
+    }
+}
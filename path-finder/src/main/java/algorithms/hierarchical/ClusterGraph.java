@@ -0,0 +1,235 @@
+package algorithms.hierarchical;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// project dependencies
+import maze.MazeGrid;
+
+/**
+ * Abstract graph of a maze split into square clusters.
+ *
+ * Nodes are entrance cells on the borders between neighbouring clusters. Entrances on
+ * both sides of a border are linked by a single step, and entrances of the same
+ * cluster are linked by their shortest distance inside that cluster. The graph is
+ * built once per maze and only read by queries afterwards.
+ */
+public class ClusterGraph {
+
+    private static final int INTER_CLUSTER_COST = 10;
+    private static final int MIN_WIDE_ENTRANCE = 6;
+
+    private final int mazeSize;
+    private final int clusterSize;
+    private final int clustersPerSide;
+
+    private int[] nodeX;
+    private int[] nodeY;
+    private int[][] neighbourNodes;
+    private int[][] neighbourCosts;
+    private int[][] clusterNodes;
+
+    private final Map<Integer, Integer> nodeIndexes;
+
+    private ClusterGraph(int mazeSize, int clusterSize) {
+        this.mazeSize = mazeSize;
+        this.clusterSize = clusterSize;
+        this.clustersPerSide = (mazeSize + clusterSize - 1) / clusterSize;
+        this.nodeIndexes = new HashMap<>();
+    }
+
+    // GETTERS
+
+    public int getMazeSize() {
+        return mazeSize;
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    public int getNumNodes() {
+        return nodeX.length;
+    }
+
+    public int getNodeX(int node) {
+        return nodeX[node];
+    }
+
+    public int getNodeY(int node) {
+        return nodeY[node];
+    }
+
+    public int[] getNeighbourNodes(int node) {
+        return neighbourNodes[node];
+    }
+
+    public int[] getNeighbourCosts(int node) {
+        return neighbourCosts[node];
+    }
+
+    public int[] getClusterNodes(int cluster) {
+        return clusterNodes[cluster];
+    }
+
+    public int clusterOf(int x, int y) {
+        return (x / clusterSize) * clustersPerSide + (y / clusterSize);
+    }
+
+    public int clusterOriginX(int cluster) {
+        return (cluster / clustersPerSide) * clusterSize;
+    }
+
+    public int clusterOriginY(int cluster) {
+        return (cluster % clustersPerSide) * clusterSize;
+    }
+
+    // OTHERS
+
+    public static ClusterGraph build(MazeGrid maze, int clusterSize) {
+        ClusterGraph graph = new ClusterGraph(maze.size(), clusterSize);
+
+        List<int[]> nodes = new ArrayList<>();
+        List<int[]> edges = new ArrayList<>();
+
+        graph.findEntrances(maze, nodes, edges);
+        graph.linkClusters(maze, nodes, edges);
+        graph.compact(nodes, edges);
+
+        return graph;
+    }
+
+    private void findEntrances(MazeGrid maze, List<int[]> nodes, List<int[]> edges) {
+        for (int border = clusterSize; border < mazeSize; border += clusterSize) {
+            for (int clusterStart = 0; clusterStart < mazeSize; clusterStart += clusterSize) {
+                int clusterEnd = Math.min(clusterStart + clusterSize, mazeSize);
+
+                // horizontal border between rows border - 1 and border
+                findEntrance(maze, nodes, edges, border, clusterStart, clusterEnd, true);
+
+                // vertical border between columns border - 1 and border
+                findEntrance(maze, nodes, edges, border, clusterStart, clusterEnd, false);
+            }
+        }
+    }
+
+    private void findEntrance(MazeGrid maze, List<int[]> nodes, List<int[]> edges,
+                              int border, int from, int to, boolean horizontal) {
+        int runStart = -1;
+
+        for (int offset = from; offset <= to; offset++) {
+            boolean open = offset < to && (horizontal
+                    ? maze.isWalkable(border - 1, offset) && maze.isWalkable(border, offset)
+                    : maze.isWalkable(offset, border - 1) && maze.isWalkable(offset, border));
+
+            if (open && runStart < 0) {
+                runStart = offset;
+            }
+            else if (!open && runStart >= 0) {
+                int runEnd = offset - 1;
+
+                // narrow entrances get one transition in the middle, wide ones one at each end
+                if (runEnd - runStart + 1 < MIN_WIDE_ENTRANCE) {
+                    addTransition(nodes, edges, border, (runStart + runEnd) / 2, horizontal);
+                }
+                else {
+                    addTransition(nodes, edges, border, runStart, horizontal);
+                    addTransition(nodes, edges, border, runEnd, horizontal);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(List<int[]> nodes, List<int[]> edges, int border, int offset, boolean horizontal) {
+        int first = horizontal ? addNode(nodes, border - 1, offset) : addNode(nodes, offset, border - 1);
+        int second = horizontal ? addNode(nodes, border, offset) : addNode(nodes, offset, border);
+
+        edges.add(new int[]{first, second, INTER_CLUSTER_COST});
+        edges.add(new int[]{second, first, INTER_CLUSTER_COST});
+    }
+
+    private int addNode(List<int[]> nodes, int x, int y) {
+        int cell = x * mazeSize + y;
+        Integer node = nodeIndexes.get(cell);
+
+        if (node == null) {
+            node = nodes.size();
+            nodes.add(new int[]{x, y});
+            nodeIndexes.put(cell, node);
+        }
+        return node;
+    }
+
+    private void linkClusters(MazeGrid maze, List<int[]> nodes, List<int[]> edges) {
+        int numClusters = clustersPerSide * clustersPerSide;
+        List<List<Integer>> nodesByCluster = new ArrayList<>(numClusters);
+
+        for (int cluster = 0; cluster < numClusters; cluster++) {
+            nodesByCluster.add(new ArrayList<Integer>());
+        }
+        for (int node = 0; node < nodes.size(); node++) {
+            nodesByCluster.get(clusterOf(nodes.get(node)[0], nodes.get(node)[1])).add(node);
+        }
+
+        clusterNodes = new int[numClusters][];
+        ClusterSearch clusterSearch = new ClusterSearch(clusterSize);
+
+        for (int cluster = 0; cluster < numClusters; cluster++) {
+            List<Integer> entrances = nodesByCluster.get(cluster);
+            clusterNodes[cluster] = new int[entrances.size()];
+
+            for (int entrance = 0; entrance < entrances.size(); entrance++) {
+                int node = entrances.get(entrance);
+                clusterNodes[cluster][entrance] = node;
+
+                // one Dijkstra per entrance gives its distance to every other entrance
+                clusterSearch.search(maze, clusterOriginX(cluster), clusterOriginY(cluster),
+                        nodes.get(node)[0], nodes.get(node)[1], -1, -1);
+
+                for (int other : entrances) {
+                    int otherX = nodes.get(other)[0];
+                    int otherY = nodes.get(other)[1];
+
+                    if (other != node && clusterSearch.isReached(otherX, otherY)) {
+                        edges.add(new int[]{node, other, clusterSearch.getSourceCost(otherX, otherY)});
+                    }
+                }
+            }
+        }
+    }
+
+    private void compact(List<int[]> nodes, List<int[]> edges) {
+        int numNodes = nodes.size();
+        int[] degrees = new int[numNodes];
+
+        nodeX = new int[numNodes];
+        nodeY = new int[numNodes];
+        for (int node = 0; node < numNodes; node++) {
+            nodeX[node] = nodes.get(node)[0];
+            nodeY[node] = nodes.get(node)[1];
+        }
+
+        for (int[] edge : edges) {
+            degrees[edge[0]]++;
+        }
+
+        neighbourNodes = new int[numNodes][];
+        neighbourCosts = new int[numNodes][];
+        for (int node = 0; node < numNodes; node++) {
+            neighbourNodes[node] = new int[degrees[node]];
+            neighbourCosts[node] = new int[degrees[node]];
+            degrees[node] = 0;
+        }
+
+        for (int[] edge : edges) {
+            int slot = degrees[edge[0]]++;
+            neighbourNodes[edge[0]][slot] = edge[1];
+            neighbourCosts[edge[0]][slot] = edge[2];
+        }
+        nodeIndexes.clear();
+    }
+}
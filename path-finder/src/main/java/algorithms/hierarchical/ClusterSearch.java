@@ -0,0 +1,143 @@
+package algorithms.hierarchical;
+
+// project dependencies
+import algorithms.AStarAlgorithm;
+import algorithms.OpenSet;
+import algorithms.SearchSpace;
+import maze.MazeGrid;
+
+/**
+ * Grid search confined to the cells of a single cluster.
+ *
+ * Cells are addressed by their local index inside the cluster window, so the
+ * underlying {@link SearchSpace} only needs {@code clusterSize * clusterSize} entries
+ * and is reused by every search, whatever cluster it runs in.
+ */
+public class ClusterSearch {
+
+    private final SearchSpace space;
+    private final int clusterSize;
+
+    private int originX;
+    private int originY;
+
+    private int expandedCells;
+
+    public ClusterSearch(int clusterSize) {
+        this.clusterSize = clusterSize;
+        this.space = new SearchSpace(clusterSize);
+    }
+
+    // GETTERS
+
+    public int getExpandedCells() {
+        return expandedCells;
+    }
+
+    public boolean isReached(int x, int y) {
+        return space.isVisited(space.indexOf(x - originX, y - originY));
+    }
+
+    public int getSourceCost(int x, int y) {
+        return space.getSourceCost(space.indexOf(x - originX, y - originY));
+    }
+
+    // OTHERS
+
+    /**
+     * Searches from (startX, startY) inside the cluster starting at (originX, originY).
+     * A negative goal runs a full Dijkstra over the cluster; otherwise the search stops
+     * as soon as the goal is chosen. Returns whether the goal (if any) was reached.
+     */
+    public boolean search(MazeGrid maze, int originX, int originY,
+                          int startX, int startY, int goalX, int goalY) {
+
+        int mazeSize = maze.size();
+
+        this.originX = originX;
+        this.originY = originY;
+        this.expandedCells = 0;
+
+        int width = Math.min(clusterSize, mazeSize - originX);
+        int height = Math.min(clusterSize, mazeSize - originY);
+        boolean hasGoal = goalX >= 0;
+
+        space.reset();
+        OpenSet walkableCells = space.getWalkableCells();
+
+        int startCell = space.indexOf(startX - originX, startY - originY);
+        int startTargetCost = hasGoal ? AStarAlgorithm.heuristicFunction(startX, startY, goalX, goalY) : 0;
+        space.visit(startCell, 0, SearchSpace.NO_CELL);
+        walkableCells.push(startCell, startTargetCost, startTargetCost);
+
+        while (!walkableCells.isEmpty()) {
+            int currCell = walkableCells.poll();
+            int currX = space.rowOf(currCell) + originX;
+            int currY = space.columnOf(currCell) + originY;
+            int currSourceCost = space.getSourceCost(currCell);
+
+            if (hasGoal && currX == goalX && currY == goalY) {
+                return true;
+            }
+
+            space.choose(currCell);
+            expandedCells++;
+
+            for (int neighbour = 0; neighbour < SearchSpace.NEIGHBOUR_X.length; neighbour++) {
+                int neighbourX = currX + SearchSpace.NEIGHBOUR_X[neighbour];
+                int neighbourY = currY + SearchSpace.NEIGHBOUR_Y[neighbour];
+
+                // stay inside the cluster window
+                if (neighbourX < originX || neighbourX >= originX + width
+                        || neighbourY < originY || neighbourY >= originY + height) {
+                    continue;
+                }
+
+                int neighbourCell = space.indexOf(neighbourX - originX, neighbourY - originY);
+
+                if (space.isChosen(neighbourCell) || !maze.isWalkable(neighbourX, neighbourY)) {
+                    continue;
+                }
+
+                int newNeighbourSourceCost = currSourceCost
+                        + AStarAlgorithm.heuristicFunction(currX, currY, neighbourX, neighbourY);
+
+                if (!space.isVisited(neighbourCell) || newNeighbourSourceCost < space.getSourceCost(neighbourCell)) {
+                    int neighbourTargetCost = hasGoal
+                            ? AStarAlgorithm.heuristicFunction(neighbourX, neighbourY, goalX, goalY) : 0;
+
+                    space.visit(neighbourCell, newNeighbourSourceCost, currCell);
+                    walkableCells.push(neighbourCell, newNeighbourSourceCost + neighbourTargetCost, neighbourTargetCost);
+                }
+            }
+        }
+        return !hasGoal;
+    }
+
+    /**
+     * Writes the cells from the last search's start to (x, y) into the given buffers,
+     * start first, and returns how many cells were written.
+     */
+    public int retrievePath(int x, int y, int[] pathX, int[] pathY) {
+        int length = 0;
+        int cell = space.indexOf(x - originX, y - originY);
+
+        while (cell != SearchSpace.NO_CELL) {
+            pathX[length] = space.rowOf(cell) + originX;
+            pathY[length] = space.columnOf(cell) + originY;
+            length++;
+            cell = space.getPreviousCell(cell);
+        }
+
+        // parents come goal first
+        for (int left = 0, right = length - 1; left < right; left++, right--) {
+            int swapX = pathX[left];
+            int swapY = pathY[left];
+            pathX[left] = pathX[right];
+            pathY[left] = pathY[right];
+            pathX[right] = swapX;
+            pathY[right] = swapY;
+        }
+        return length;
+    }
+}
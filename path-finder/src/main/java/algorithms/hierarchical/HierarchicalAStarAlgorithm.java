@@ -0,0 +1,260 @@
+package algorithms.hierarchical;
+
+// built-in dependencies
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// external dependencies
+import logs.Logger;
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+// project dependencies
+import algorithms.AStarAlgorithm;
+import algorithms.OpenSet;
+import algorithms.PathFinder;
+
+/**
+ * Hierarchical A* (HPA*) on top of a {@link ClusterGraph}.
+ *
+ * A query links the source and target into the abstract graph through their own
+ * clusters, searches the abstract graph, and then refines only the clusters along
+ * the chosen corridor back into grid cells. The cluster graph is built on the first
+ * query against a maze and reused until a different maze is given. When the abstract
+ * graph cannot connect both ends the query falls back to a flat A* search.
+ */
+public class HierarchicalAStarAlgorithm implements PathFinder {
+
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    private static final int NO_NODE = -1;
+
+    private final int clusterSize;
+
+    private ClusterGraph graph;
+    private MazeGrid graphMaze;
+    private long graphFingerprint;
+
+    private ClusterSearch clusterSearch;
+    private OpenSet abstractNodes;
+    private int[] sourceCosts;
+    private int[] previousNodes;
+    private int[] visitStamps;
+    private int[] targetLinkCosts;
+    private int[] targetLinkStamps;
+    private boolean[] chosenNodes;
+    private int stamp;
+
+    private int[] pathX;
+    private int[] pathY;
+
+    private int expandedCells;
+
+    private final AStarAlgorithm fallback;
+    private final Logger logger;
+
+    public HierarchicalAStarAlgorithm() {
+        this(DEFAULT_CLUSTER_SIZE);
+    }
+
+    public HierarchicalAStarAlgorithm(int clusterSize) {
+        this.clusterSize = clusterSize;
+        this.fallback = new AStarAlgorithm();
+        this.logger = Logger.getInstance();
+    }
+
+    // GETTERS
+
+    @Override
+    public int getExpandedCells() {
+        return expandedCells;
+    }
+
+    public ClusterGraph getClusterGraph() {
+        return graph;
+    }
+
+    // OTHERS
+
+    public void buildClusterGraph(MazeGrid maze) {
+        long startTime = System.nanoTime();
+
+        graph = ClusterGraph.build(maze, clusterSize);
+        graphMaze = maze;
+        graphFingerprint = maze.fingerprint();
+
+        int numNodes = graph.getNumNodes() + 2;
+        clusterSearch = new ClusterSearch(clusterSize);
+        abstractNodes = new OpenSet(numNodes);
+        sourceCosts = new int[numNodes];
+        previousNodes = new int[numNodes];
+        visitStamps = new int[numNodes];
+        targetLinkCosts = new int[numNodes];
+        targetLinkStamps = new int[numNodes];
+        chosenNodes = new boolean[numNodes];
+        stamp = 0;
+
+        pathX = new int[clusterSize * clusterSize];
+        pathY = new int[clusterSize * clusterSize];
+
+        logger.log("\n\nCluster graph: " + graph.getNumNodes() + " entrances, cluster size " + clusterSize
+                + ", built in " + (System.nanoTime() - startTime) / 1000000 + " ms");
+    }
+
+    @Override
+    public List<Pair<Integer, Integer>> findPath(MazeGrid maze, int[] source, int[] target) {
+
+        // the abstraction is built once per loaded maze, and again only when its content changes
+        if (graph == null || graphMaze != maze || graphFingerprint != maze.fingerprint()) {
+            buildClusterGraph(maze);
+        }
+
+        System.out.print("\n\n//// Hierarchical A* algorithm Execution ////");
+        logger.log("\n\n//// Hierarchical A* algorithm Execution ////");
+
+        expandedCells = 0;
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamps, 0);
+            Arrays.fill(targetLinkStamps, 0);
+            stamp = 1;
+        }
+        Arrays.fill(chosenNodes, false);
+        abstractNodes.clear();
+
+        int numNodes = graph.getNumNodes();
+        int sourceNode = numNodes;
+        int targetNode = numNodes + 1;
+        int sourceCluster = graph.clusterOf(source[0], source[1]);
+        int targetCluster = graph.clusterOf(target[0], target[1]);
+
+        // link the target to the entrances of its cluster
+        if (maze.isWalkable(target[0], target[1])) {
+            clusterSearch.search(maze, graph.clusterOriginX(targetCluster), graph.clusterOriginY(targetCluster),
+                    target[0], target[1], -1, -1);
+            expandedCells += clusterSearch.getExpandedCells();
+
+            for (int node : graph.getClusterNodes(targetCluster)) {
+                if (clusterSearch.isReached(graph.getNodeX(node), graph.getNodeY(node))) {
+                    targetLinkStamps[node] = stamp;
+                    targetLinkCosts[node] = clusterSearch.getSourceCost(graph.getNodeX(node), graph.getNodeY(node));
+                }
+            }
+        }
+
+        // source is a free node reached at no cost
+        visitNode(sourceNode, 0, NO_NODE, source[0], source[1], target);
+
+        while (!abstractNodes.isEmpty()) {
+            int currNode = abstractNodes.poll();
+
+            if (currNode == targetNode) {
+                return refinePath(maze, currNode, sourceNode, source, target);
+            }
+
+            chosenNodes[currNode] = true;
+            expandedCells++;
+            int currSourceCost = sourceCosts[currNode];
+
+            if (currNode == sourceNode) {
+                // link the source to the entrances of its cluster, and to the target when they share it
+                clusterSearch.search(maze, graph.clusterOriginX(sourceCluster), graph.clusterOriginY(sourceCluster),
+                        source[0], source[1], -1, -1);
+                expandedCells += clusterSearch.getExpandedCells();
+
+                for (int node : graph.getClusterNodes(sourceCluster)) {
+                    if (clusterSearch.isReached(graph.getNodeX(node), graph.getNodeY(node))) {
+                        relaxNode(node, currNode, clusterSearch.getSourceCost(graph.getNodeX(node), graph.getNodeY(node)),
+                                graph.getNodeX(node), graph.getNodeY(node), target);
+                    }
+                }
+                if (sourceCluster == targetCluster && clusterSearch.isReached(target[0], target[1])
+                        && maze.isWalkable(target[0], target[1])) {
+                    relaxNode(targetNode, currNode, clusterSearch.getSourceCost(target[0], target[1]),
+                            target[0], target[1], target);
+                }
+                continue;
+            }
+
+            int[] neighbourNodes = graph.getNeighbourNodes(currNode);
+            int[] neighbourCosts = graph.getNeighbourCosts(currNode);
+
+            for (int neighbour = 0; neighbour < neighbourNodes.length; neighbour++) {
+                int neighbourNode = neighbourNodes[neighbour];
+                relaxNode(neighbourNode, currNode, currSourceCost + neighbourCosts[neighbour],
+                        graph.getNodeX(neighbourNode), graph.getNodeY(neighbourNode), target);
+            }
+
+            if (targetLinkStamps[currNode] == stamp) {
+                relaxNode(targetNode, currNode, currSourceCost + targetLinkCosts[currNode], target[0], target[1], target);
+            }
+        }
+
+        // the abstract graph misses corner-only links between clusters, so fall back to a flat search
+        logger.log("\n\nAbstract search failed, falling back to A*");
+        List<Pair<Integer, Integer>> path = fallback.findPath(maze, source, target);
+        expandedCells += fallback.getExpandedCells();
+
+        return path;
+    }
+
+    private void relaxNode(int node, int previousNode, int sourceCost, int x, int y, int[] target) {
+        if (chosenNodes[node]) {
+            return;
+        }
+        if (visitStamps[node] != stamp || sourceCost < sourceCosts[node]) {
+            visitNode(node, sourceCost, previousNode, x, y, target);
+        }
+    }
+
+    private void visitNode(int node, int sourceCost, int previousNode, int x, int y, int[] target) {
+        int targetCost = AStarAlgorithm.heuristicFunction(x, y, target[0], target[1]);
+
+        visitStamps[node] = stamp;
+        sourceCosts[node] = sourceCost;
+        previousNodes[node] = previousNode;
+        abstractNodes.push(node, sourceCost + targetCost, targetCost);
+    }
+
+    private List<Pair<Integer, Integer>> refinePath(MazeGrid maze, int targetNode, int sourceNode,
+                                                    int[] source, int[] target) {
+        List<Integer> abstractPath = new ArrayList<>();
+        for (int node = targetNode; node != NO_NODE; node = previousNodes[node]) {
+            abstractPath.add(node);
+        }
+        Collections.reverse(abstractPath);
+
+        List<Pair<Integer, Integer>> bestMazePath = new ArrayList<>();
+        bestMazePath.add(Pair.with(source[0], source[1]));
+
+        int fromX = source[0];
+        int fromY = source[1];
+
+        for (int step = 1; step < abstractPath.size(); step++) {
+            int node = abstractPath.get(step);
+            int toX = node == targetNode ? target[0] : graph.getNodeX(node);
+            int toY = node == targetNode ? target[1] : graph.getNodeY(node);
+            int fromCluster = graph.clusterOf(fromX, fromY);
+
+            // entrances of neighbouring clusters are a single step apart
+            if (fromCluster != graph.clusterOf(toX, toY)) {
+                bestMazePath.add(Pair.with(toX, toY));
+            }
+            // everything else is refined inside the one cluster it crosses
+            else if (fromX != toX || fromY != toY) {
+                clusterSearch.search(maze, graph.clusterOriginX(fromCluster), graph.clusterOriginY(fromCluster),
+                        fromX, fromY, toX, toY);
+                expandedCells += clusterSearch.getExpandedCells();
+
+                int length = clusterSearch.retrievePath(toX, toY, pathX, pathY);
+                for (int cell = 1; cell < length; cell++) {
+                    bestMazePath.add(Pair.with(pathX[cell], pathY[cell]));
+                }
+            }
+            fromX = toX;
+            fromY = toY;
+        }
+        return bestMazePath;
+    }
+}
@@ -2,24 +2,43 @@ package app;
 
 // external dependencies
 import algorithms.AStarAlgorithm;
+import algorithms.BidirectionalAStarAlgorithm;
+import algorithms.FlowFieldAlgorithm;
+import algorithms.JumpPointSearchAlgorithm;
+import algorithms.PathFinder;
+import algorithms.hierarchical.HierarchicalAStarAlgorithm;
+import logs.AsyncLogWriter;
+import logs.LogLevel;
 import logs.Logger;
+import logs.OverflowPolicy;
+import logs.Tracer;
+import maze.BinaryMazeFormat;
+import maze.MazeConverter;
+import maze.MazeGrid;
+import maze.MazeLoader;
 import org.apache.commons.cli.*;
 
 // project dependencies
+import algorithms.genetic.AdaptiveControl;
+import algorithms.genetic.Agent;
 import algorithms.genetic.GeneticAlgorithm;
+import algorithms.genetic.PopulationCheckpoint;
+import algorithms.genetic.SeedingStrategy;
+import algorithms.genetic.island.IslandModel;
+import algorithms.genetic.island.MigrationCoordinator;
+import algorithms.genetic.island.MigrationTopology;
+import algorithms.genetic.island.SocketMigrationChannel;
 import org.javatuples.Pair;
 
 // built-in dependencies
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.List;
 
 
 public class App {
 
-    private static int mazeSize = 0;
     private static int numAgentMoves = 0;
-    private static char[][] maze;
+    private static MazeGrid maze;
 
 
     public static void main( String[] args ) {
@@ -29,14 +48,38 @@ public class App {
 
         String syntax = "java -jar path-finder-jar-with-dependencies.jar " +
                 "--filepath /home/documents/... --generations 100 --agents 10 " +
-                "--agent-ratio 10 --move-ratio 15 --logfile /home/documents/...";
+                "--agent-ratio 10 --move-ratio 15 --logfile /home/documents/... --search jps";
 
         String mazeFilePathSring = "";
         String logFilePathString = ".";
+        String logAsyncString = "";
+        String logLevelString = "info";
+        String traceFilePathString = "";
+        String logBufferString = String.valueOf(AsyncLogWriter.DEFAULT_CAPACITY);
         String numGenerationString = "1";
         String numAgentsString = "3";
         String agentMutationRatioString = "60";
         String movementMutationRatioString = "1";
+        String searchModeString = "astar";
+        String clusterSizeString = String.valueOf(HierarchicalAStarAlgorithm.DEFAULT_CLUSTER_SIZE);
+        String convertFilePathString = "";
+        String numThreadsString = "1";
+        String seedString = String.valueOf(System.nanoTime());
+        String numIslandsString = "1";
+        String migrationIntervalString = String.valueOf(IslandModel.DEFAULT_MIGRATION_INTERVAL);
+        String numMigrantsString = String.valueOf(IslandModel.DEFAULT_NUM_MIGRANTS);
+        String topologyString = "ring";
+        String coordinatorPortString = "";
+        String workerAddressString = "";
+        String stagnationString = "0";
+        String restartsString = "0";
+        boolean adaptiveMutation = false;
+        String seedingString = "uniform";
+        String checkpointFilePathString = "";
+        String checkpointIntervalString = String.valueOf(PopulationCheckpoint.DEFAULT_INTERVAL);
+        String resumeFilePathString = "";
+        String tournamentSizeString = String.valueOf(GeneticAlgorithm.DEFAULT_TOURNAMENT_SIZE);
+        boolean compareSearch = false;
 
         try {
             CommandLine cmdLine = parser.parse(options, args);
@@ -53,12 +96,37 @@ public class App {
                 System.exit(0);
             }
             else {
-                if (cmdLine.hasOption("f")) mazeFilePathSring = cmdLine.getOptionValue("f"); else return;
+                if (cmdLine.hasOption("co")) coordinatorPortString = cmdLine.getOptionValue("co");
+                if (cmdLine.hasOption("f")) mazeFilePathSring = cmdLine.getOptionValue("f");
+                else if (coordinatorPortString.length() == 0) return;
                 if (cmdLine.hasOption("l")) logFilePathString = cmdLine.getOptionValue("l");
+                if (cmdLine.hasOption("tr")) traceFilePathString = cmdLine.getOptionValue("tr");
+                if (cmdLine.hasOption("ll")) logLevelString = cmdLine.getOptionValue("ll");
+                if (cmdLine.hasOption("la")) logAsyncString = cmdLine.getOptionValue("la");
+                if (cmdLine.hasOption("lb")) logBufferString = cmdLine.getOptionValue("lb");
                 if (cmdLine.hasOption("g")) numGenerationString = cmdLine.getOptionValue("g");
                 if (cmdLine.hasOption("a")) numAgentsString = cmdLine.getOptionValue("a");
                 if (cmdLine.hasOption("ar")) agentMutationRatioString = cmdLine.getOptionValue("ar");
                 if (cmdLine.hasOption("mr")) movementMutationRatioString = cmdLine.getOptionValue("mr");
+                if (cmdLine.hasOption("s")) searchModeString = cmdLine.getOptionValue("s");
+                if (cmdLine.hasOption("cs")) clusterSizeString = cmdLine.getOptionValue("cs");
+                if (cmdLine.hasOption("cmp")) compareSearch = true;
+                if (cmdLine.hasOption("cv")) convertFilePathString = cmdLine.getOptionValue("cv");
+                if (cmdLine.hasOption("t")) numThreadsString = cmdLine.getOptionValue("t");
+                if (cmdLine.hasOption("sd")) seedString = cmdLine.getOptionValue("sd");
+                if (cmdLine.hasOption("is")) numIslandsString = cmdLine.getOptionValue("is");
+                if (cmdLine.hasOption("mi")) migrationIntervalString = cmdLine.getOptionValue("mi");
+                if (cmdLine.hasOption("mg")) numMigrantsString = cmdLine.getOptionValue("mg");
+                if (cmdLine.hasOption("tp")) topologyString = cmdLine.getOptionValue("tp");
+                if (cmdLine.hasOption("wk")) workerAddressString = cmdLine.getOptionValue("wk");
+                if (cmdLine.hasOption("st")) stagnationString = cmdLine.getOptionValue("st");
+                if (cmdLine.hasOption("rs")) restartsString = cmdLine.getOptionValue("rs");
+                if (cmdLine.hasOption("am")) adaptiveMutation = true;
+                if (cmdLine.hasOption("ck")) checkpointFilePathString = cmdLine.getOptionValue("ck");
+                if (cmdLine.hasOption("ci")) checkpointIntervalString = cmdLine.getOptionValue("ci");
+                if (cmdLine.hasOption("rm")) resumeFilePathString = cmdLine.getOptionValue("rm");
+                if (cmdLine.hasOption("sg")) seedingString = cmdLine.getOptionValue("sg");
+                if (cmdLine.hasOption("ts")) tournamentSizeString = cmdLine.getOptionValue("ts");
             }
 
         }
@@ -67,41 +135,187 @@ public class App {
             System.exit(0);
         }
 
+        // the coordinator only routes migrants between workers, it needs no maze
+        if (coordinatorPortString.length() != 0) {
+            Logger logger = createLogger(logFilePathString, logLevelString, logAsyncString,
+                    Integer.parseInt(logBufferString));
+            runCoordinator(Integer.parseInt(coordinatorPortString), Integer.parseInt(numIslandsString),
+                    Long.parseLong(seedString));
+            logger.close();
+            return;
+        }
+
         if (mazeFilePathSring.length() == 0) { // TODO: Improve validation
             System.out.println("Read failed. Reason: file not found");
             System.exit(0);
         }
 
-        loadMaze(mazeFilePathSring);
+        PathFinder pathFinder = createPathFinder(searchModeString, Integer.parseInt(clusterSizeString));
+        if (pathFinder == null) {
+            System.out.println("Parsing failed. Reason: unknown search mode " + searchModeString);
+            System.exit(0);
+        }
 
+        Logger logger = createLogger(logFilePathString, logLevelString, logAsyncString,
+                Integer.parseInt(logBufferString));
 
-        Logger logger = Logger.getInstance();
-        logger.setLoggerObject(logFilePathString);
+        // conversion only rewrites the maze file, no search is run
+        if (convertFilePathString.length() != 0) {
+            convertMaze(mazeFilePathSring, convertFilePathString);
+            logger.close();
+            return;
+        }
+
+        loadMaze(mazeFilePathSring);
 
         int numGenerations = Integer.parseInt(numGenerationString);
         int numAgents = Integer.parseInt(numAgentsString);
         int agentMutationRatio = Integer.parseInt(agentMutationRatioString);
         int movementMutationRatio = Integer.parseInt(movementMutationRatioString);
+        int numThreads = Integer.parseInt(numThreadsString);
+        long seed = Long.parseLong(seedString);
+        int numIslands = Integer.parseInt(numIslandsString);
+
+        // checkpoints hold a single population, islands have one each
+        boolean checkpointed = checkpointFilePathString.length() != 0 || resumeFilePathString.length() != 0;
+        if (checkpointed && (numIslands > 1 || workerAddressString.length() != 0)) {
+            System.out.println("Parsing failed. Reason: --checkpoint and --resume only apply to a single "
+                    + "population, not to --islands or --worker");
+            System.exit(0);
+        }
 
-        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(
-                numGenerations,
-                numAgents,
-                agentMutationRatio,
-                movementMutationRatio
+        // a resumed run takes its seed and population size from the checkpoint
+        PopulationCheckpoint.Snapshot resumeSnapshot = null;
+        if (resumeFilePathString.length() != 0) {
+            resumeSnapshot = resumeRun(resumeFilePathString);
+            seed = resumeSnapshot.getSeed();
+            numAgents = resumeSnapshot.getNumAgents();
+        }
 
-        );
-        Pair<Integer, Integer> solution = geneticAlgorithm.findPath(
-                maze,
-                mazeSize,
-                numAgentMoves
-        );
+        Tracer tracer = Tracer.getInstance();
+        if (traceFilePathString.length() != 0) {
+            tracer.setTraceObject(traceFilePathString, maze.size(), seed);
+        }
+
+        Pair<Integer, Integer> solution;
+
+        MigrationTopology topology = MigrationTopology.fromName(topologyString);
+        if (topology == null) {
+            System.out.println("Parsing failed. Reason: unknown topology " + topologyString);
+            System.exit(0);
+        }
+
+        SeedingStrategy seeding = SeedingStrategy.fromName(seedingString);
+        if (seeding == null) {
+            System.out.println("Parsing failed. Reason: unknown seeding " + seedingString);
+            System.exit(0);
+        }
+
+        if (workerAddressString.length() != 0) {
+            solution = runWorker(
+                    workerAddressString,
+                    numGenerations,
+                    numAgents,
+                    agentMutationRatio,
+                    movementMutationRatio,
+                    Integer.parseInt(migrationIntervalString),
+                    Integer.parseInt(numMigrantsString),
+                    topology,
+                    seeding
+            );
+        }
+        else if (numIslands > 1) {
+            IslandModel islandModel = new IslandModel(
+                    numIslands,
+                    numGenerations,
+                    numAgents,
+                    agentMutationRatio,
+                    movementMutationRatio,
+                    Integer.parseInt(migrationIntervalString),
+                    Integer.parseInt(numMigrantsString),
+                    topology,
+                    seed
+            );
+            islandModel.setSeeding(seeding);
+            solution = islandModel.findPath(
+                    maze,
+                    numAgentMoves
+            );
+        }
+        else {
+            GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(
+                    numGenerations,
+                    numAgents,
+                    agentMutationRatio,
+                    movementMutationRatio,
+                    numThreads,
+                    seed
+            );
+            geneticAlgorithm.setTournamentSize(Integer.parseInt(tournamentSizeString));
+            geneticAlgorithm.setSeeding(seeding);
+            geneticAlgorithm.setResumeSnapshot(resumeSnapshot);
+
+            PopulationCheckpoint checkpoint = null;
+            if (checkpointFilePathString.length() != 0) {
+                checkpoint = new PopulationCheckpoint(checkpointFilePathString,
+                        Integer.parseInt(checkpointIntervalString));
+                geneticAlgorithm.setCheckpoint(checkpoint);
+            }
+
+            int stagnationLimit = Integer.parseInt(stagnationString);
+            if (adaptiveMutation || stagnationLimit > 0) {
+                geneticAlgorithm.setAdaptiveControl(new AdaptiveControl(
+                        agentMutationRatio,
+                        movementMutationRatio,
+                        adaptiveMutation,
+                        stagnationLimit,
+                        Integer.parseInt(restartsString)
+                ));
+            }
+
+            solution = geneticAlgorithm.findPath(
+                    maze,
+                    numAgentMoves
+            );
+            geneticAlgorithm.close();
+
+            if (checkpoint != null) {
+                checkpoint.close();
+                if (logger.isEnabled(LogLevel.INFO)) {
+                    logger.log(LogLevel.INFO, "Checkpoints: written=" + checkpoint.getNumWritten()
+                            + " skipped=" + checkpoint.getNumSkipped() + "\n\n");
+                }
+            }
+        }
 
         if (!solution.equals(Pair.with(-1, -1))) {
             int[] in = new int[]{0,0};
             int[] out = new int[]{solution.getValue0(), solution.getValue1()};
 
-            AStarAlgorithm aStarAlgorithm = new AStarAlgorithm(in, out);
-            aStarAlgorithm.findPath(maze, mazeSize);
+            List<Pair<Integer, Integer>> path = pathFinder.findPath(maze, in, out);
+            showCells("Path", path);
+            String expandedStats = "Expanded cells: " + pathFinder.getExpandedCells() + "\n\n";
+            System.out.print(expandedStats);
+            logger.log(expandedStats);
+
+            // run the unidirectional engine on the same query as a baseline
+            if (compareSearch && !"astar".equals(searchModeString)) {
+                AStarAlgorithm baseline = new AStarAlgorithm();
+                baseline.findPath(maze, in, out);
+
+                String comparison = "\n\nExpanded cells: " + searchModeString + "=" + pathFinder.getExpandedCells()
+                        + " astar=" + baseline.getExpandedCells() + "\n\n";
+                System.out.print(comparison);
+                logger.log(comparison);
+            }
+        }
+
+        if (tracer.isEnabled()) {
+            if (logger.isEnabled(LogLevel.INFO)) {
+                logger.log(LogLevel.INFO, "Trace: " + tracer.getBytesWritten() + " bytes written to "
+                        + traceFilePathString + "\n\n");
+            }
+            tracer.close();
         }
 
         logger.close();
@@ -135,6 +349,124 @@ public class App {
                 .type(Integer.class)
                 .hasArg()
                 .build();
+        Option threads = Option.builder("t").longOpt("threads")
+                .desc("threads scoring agents in parallel, 1 scores them sequentially (default=1) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option seed = Option.builder("sd").longOpt("seed")
+                .desc("seed of the genetic algorithm, the same seed replays the same run (default=random) [OPTIONAL]")
+                .type(Long.class)
+                .hasArg()
+                .build();
+        Option islands = Option.builder("is").longOpt("islands")
+                .desc("number of islands evolving on their own threads, 1 runs a single population (default=1) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option migrationInterval = Option.builder("mi").longOpt("migration-interval")
+                .desc("generations between migrations of the island model (default=10) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option migrants = Option.builder("mg").longOpt("migrants")
+                .desc("best agents each island sends per migration (default=2) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option topology = Option.builder("tp").longOpt("topology")
+                .desc("island migration topology: ring or full (default=ring) [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option checkpoint = Option.builder("ck").longOpt("checkpoint")
+                .desc("write the population to this binary checkpoint file while the run goes on [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option checkpointInterval = Option.builder("ci").longOpt("checkpoint-interval")
+                .desc("generations between checkpoints (default=10) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option resume = Option.builder("rm").longOpt("resume")
+                .desc("continue the run saved in this checkpoint file, with its seed and agents [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option seeding = Option.builder("sg").longOpt("seeding")
+                .desc("first generation genomes: uniform random moves or random walks over walkable cells "
+                        + "(default=uniform) [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option tournamentSize = Option.builder("ts").longOpt("tournament-size")
+                .desc("agents competing in each selection tournament (default=2) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option adaptive = Option.builder("am").longOpt("adaptive-mutation")
+                .desc("raise the mutation ratios while the population is stuck and converged [OPTIONAL]")
+                .build();
+        Option stagnation = Option.builder("st").longOpt("stagnation")
+                .desc("generations without improvement before restarting or stopping, 0 never stops (default=0) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option restarts = Option.builder("rs").longOpt("restarts")
+                .desc("restarts around the elite allowed before a stagnant run stops (default=0) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option coordinator = Option.builder("co").longOpt("coordinator")
+                .desc("coordinate --islands worker processes on the given port, no maze is needed [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option worker = Option.builder("wk").longOpt("worker")
+                .desc("run one island as a worker of the coordinator at host:port [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option search = Option.builder("s").longOpt("search")
+                .desc("path search mode: astar, jps, bidirectional, hierarchical or field (default=astar) [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option clusterSize = Option.builder("cs").longOpt("cluster-size")
+                .desc("cluster side used by the hierarchical search (default=16) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
+        Option compare = Option.builder("cmp").longOpt("compare")
+                .desc("also run plain A* and compare expanded cells [OPTIONAL]")
+                .build();
+        Option convert = Option.builder("cv").longOpt("convert")
+                .desc("convert the maze file between text and binary formats into the given path and exit [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option trace = Option.builder("tr").longOpt("trace")
+                .desc("record genomes, scores and A* expansions to this binary trace, read it with TraceTool [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option logLevel = Option.builder("ll").longOpt("log-level")
+                .desc("log level: error, warn, info, debug (population dumps) or trace (expanded cells) "
+                        + "(default=info) [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option logAsync = Option.builder("la").longOpt("log-async")
+                .desc("log from a background thread, on a full buffer: block, drop or sample [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option logBuffer = Option.builder("lb").longOpt("log-buffer")
+                .desc("chars buffered by the asynchronous logger (default=1048576) [OPTIONAL]")
+                .type(Integer.class)
+                .hasArg()
+                .build();
         Option logFile = Option.builder("l").longOpt("log [OPTIONAL]")
                 .desc("path to log file (default='.')")
                 .type(String.class)
@@ -146,60 +478,224 @@ public class App {
         options.addOption(agents);
         options.addOption(agentMutRatio);
         options.addOption(moveMutRatio);
+        options.addOption(threads);
+        options.addOption(seed);
+        options.addOption(islands);
+        options.addOption(migrationInterval);
+        options.addOption(migrants);
+        options.addOption(topology);
+        options.addOption(seeding);
+        options.addOption(checkpoint);
+        options.addOption(checkpointInterval);
+        options.addOption(resume);
+        options.addOption(tournamentSize);
+        options.addOption(adaptive);
+        options.addOption(stagnation);
+        options.addOption(restarts);
+        options.addOption(coordinator);
+        options.addOption(worker);
+        options.addOption(search);
+        options.addOption(clusterSize);
+        options.addOption(compare);
+        options.addOption(convert);
         options.addOption(logFile);
+        options.addOption(trace);
+        options.addOption(logLevel);
+        options.addOption(logAsync);
+        options.addOption(logBuffer);
 
         options.addOption("h", "help", false, "show help");
 
         return options;
     }
 
-    public static void loadMaze(String path) {
+    public static void runCoordinator(int port, int numIslands, long seed) {
+        Logger logger = Logger.getInstance();
+        MigrationCoordinator coordinator = new MigrationCoordinator(numIslands, seed);
+
         try {
-            BufferedReader file = new BufferedReader(new FileReader(path));
+            coordinator.bind(port);
+            System.out.print("\n\nCoordinator waiting for " + numIslands + " workers on port "
+                    + coordinator.getPort() + "\n\n");
+            coordinator.run();
+        }
+        catch(IOException | InterruptedException exception){
+            System.out.println("Coordination failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
 
-            int fileLineCount = 0;
+        String coordinatorStats = coordinator.isSolved()
+                ? "\n\nIsland " + coordinator.getSolverIsland() + " found the way out at ("
+                        + coordinator.getExitX() + ", " + coordinator.getExitY() + ") on generation "
+                        + coordinator.getSolverGeneration()
+                : "\n\nDid not found path :(";
+        coordinatorStats += ", workers ran " + coordinator.getTotalGenerations() + " generations\n\n";
+        System.out.print(coordinatorStats);
+        logger.log(coordinatorStats);
+    }
 
-            String[] intermediateElements;
+    public static Pair<Integer, Integer> runWorker(String address, int numGenerations, int numAgents,
+                                                   int agentMutationRatio, int movementMutationRatio,
+                                                   int migrationInterval, int numMigrants,
+                                                   MigrationTopology topology, SeedingStrategy seeding) {
+        int separator = address.lastIndexOf(':');
+        if (separator < 0) {
+            System.out.println("Parsing failed. Reason: worker address must be host:port, got " + address);
+            System.exit(0);
+        }
 
-            char[] lineElements;
-            char element;
-            int mazeLineCount=0;
+        SocketMigrationChannel channel = null;
+        try {
+            channel = SocketMigrationChannel.connect(address.substring(0, separator),
+                    Integer.parseInt(address.substring(separator + 1)), maze.fingerprint(),
+                    Agent.numWords(numAgentMoves));
+        }
+        catch(IOException exception){
+            System.out.println("Connection failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
 
-            while (file.ready()) {
+        // the coordinator hands out the island and the seed, so every worker shares the run seed
+        IslandModel islandModel = new IslandModel(
+                channel.getNumIslands(),
+                numGenerations,
+                numAgents,
+                agentMutationRatio,
+                movementMutationRatio,
+                migrationInterval,
+                numMigrants,
+                topology,
+                channel.getSeed()
+        );
+        islandModel.setSeeding(seeding);
+        islandModel.setLocalIslands(channel.getIsland(), 1);
+        islandModel.setMigrationChannel(channel);
 
-                if (fileLineCount != 0) {
-                    String line = file.readLine();
-                    StringBuilder intermediateString = new StringBuilder();
+        Pair<Integer, Integer> solution = islandModel.findPath(maze, numAgentMoves);
 
-                    intermediateElements = line.split(" ");
+        try {
+            channel.finish((int) islandModel.getTotalGenerations());
+            channel.close();
+        }
+        catch(IOException exception){
+            // the coordinator already knows the outcome, losing it now changes nothing
+        }
+        return solution;
+    }
 
-                    for (int i = 0; i < intermediateElements.length; i ++) {
-                        intermediateString.append(intermediateElements[i]);
-                    }
+    public static Logger createLogger(String logFilePath, String logLevelName, String overflowPolicyName,
+                                      int bufferSize) {
+        Logger logger = Logger.getInstance();
+        logger.setLoggerObject(logFilePath);
 
-                    lineElements = intermediateString.toString().toCharArray();
+        LogLevel logLevel = LogLevel.fromName(logLevelName);
+        if (logLevel == null) {
+            System.out.println("Parsing failed. Reason: unknown log level " + logLevelName);
+            System.exit(0);
+        }
+        logger.setLevel(logLevel);
 
-                    if (mazeLineCount < mazeSize) {
-                        for (int columnVal = 0; columnVal < lineElements.length; columnVal++) {
-                            element = lineElements[columnVal];
-                            if (element != ' ') element = lineElements[columnVal];
-                            if (element == '0' || element == 'S') numAgentMoves++;
-                            maze[mazeLineCount][columnVal] = element;
-                        }
-                        mazeLineCount++;
-                    }
-                }
-                else {
-                    mazeSize = Integer.parseInt(file.readLine());
-                    maze = new char[mazeSize][mazeSize];
-                }
-                fileLineCount++;
+        if (overflowPolicyName.length() != 0) {
+            OverflowPolicy overflowPolicy = OverflowPolicy.fromName(overflowPolicyName);
+            if (overflowPolicy == null) {
+                System.out.println("Parsing failed. Reason: unknown log overflow policy " + overflowPolicyName);
+                System.exit(0);
             }
-            file.close();
+            logger.setAsync(bufferSize, overflowPolicy);
+        }
+        return logger;
+    }
+
+    public static PathFinder createPathFinder(String searchMode, int clusterSize) {
+        switch (searchMode) {
+            case "astar":
+                return new AStarAlgorithm();
+            case "jps":
+                return new JumpPointSearchAlgorithm();
+            case "bidirectional":
+                return new BidirectionalAStarAlgorithm();
+            case "hierarchical":
+                return new HierarchicalAStarAlgorithm(clusterSize);
+            case "field":
+                return new FlowFieldAlgorithm();
+            default:
+                return null;
+        }
+    }
+
+    public static void showCells(String prefix, List<Pair<Integer, Integer>> cells) {
+        Logger logger = Logger.getInstance();
+
+        StringBuilder cellsStrBuilder = new StringBuilder("\n\n").append(prefix).append(" cells: ");
+        for (Pair<Integer, Integer> cell: cells) {
+            cellsStrBuilder.append(cell).append(' ');
+        }
+        cellsStrBuilder.append("\n\n");
+
+        String cellsString = cellsStrBuilder.toString();
+        System.out.print(cellsString);
+        logger.log(cellsString);
+    }
+
+    public static void convertMaze(String inputPath, String outputPath) {
+        Logger logger = Logger.getInstance();
+        MazeConverter mazeConverter = new MazeConverter();
+
+        try {
+            mazeConverter.convert(inputPath, outputPath, BinaryMazeFormat.DEFAULT_ROWS_PER_CHUNK);
+        }
+        catch(IOException exception){
+            System.out.println("Conversion failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+
+        String convertStats = "\n\nMaze converted to " + (mazeConverter.getMazeLoader().isBinary() ? "text" : "binary")
+                + ": " + mazeConverter.getMazeLoader().getBytesRead() + " -> " + mazeConverter.getBytesWritten()
+                + " bytes\n\n";
+        System.out.print(convertStats);
+        logger.log(convertStats);
+    }
+
+    public static PopulationCheckpoint.Snapshot resumeRun(String path) {
+        PopulationCheckpoint.Snapshot snapshot = null;
+
+        try {
+            snapshot = PopulationCheckpoint.read(path);
+        }
+        catch(IOException exception){
+            System.out.println("Resume failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+
+        if (snapshot.getMazeFingerprint() != maze.fingerprint() || snapshot.getNumAgentMoves() != numAgentMoves) {
+            System.out.println("Resume failed. Reason: the checkpoint was taken on another maze");
+            System.exit(0);
+        }
+
+        String resumeStats = "\n\nResuming generation " + snapshot.getGeneration() + " of " + snapshot.getNumAgents()
+                + " agents, best score " + snapshot.getBestScore() + "\n\n";
+        System.out.print(resumeStats);
+        Logger.getInstance().log(resumeStats);
+        return snapshot;
+    }
+
+    public static void loadMaze(String path) {
+        Logger logger = Logger.getInstance();
+        MazeLoader mazeLoader = new MazeLoader();
+
+        try {
+            maze = mazeLoader.load(path);
+            numAgentMoves = mazeLoader.getNumAgentMoves();
         }
         catch(IOException exception){
             System.out.println("File read failed. Reason: " + exception.getMessage());
             System.exit(0);
         }
+
+        String loadStats = String.format("\n\nMaze loaded: %dx%d %s, %d bytes in %d ms (%.1f MB/s)\n\n",
+                maze.size(), maze.size(), mazeLoader.isBinary() ? "binary" : "text", mazeLoader.getBytesRead(),
+                mazeLoader.getElapsedNanos() / 1000000, mazeLoader.getThroughput());
+        System.out.print(loadStats);
+        logger.log(loadStats);
     }
 }
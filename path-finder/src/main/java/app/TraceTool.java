@@ -0,0 +1,169 @@
+package app;
+
+// external dependencies
+import logs.TraceReader;
+import logs.Tracer;
+import org.apache.commons.cli.*;
+
+// project dependencies
+import algorithms.genetic.Agent;
+import algorithms.genetic.CrossoverPredictor;
+
+// built-in dependencies
+import java.io.IOException;
+
+
+/**
+ * Offline reader of the binary traces written with {@code --trace}: prints a summary of
+ * every generation and search, and replays the agents of the selected generations.
+ */
+public class TraceTool {
+
+    public static void main( String[] args ) {
+
+        CommandLineParser parser = new DefaultParser();
+        Options options = generateOptions();
+
+        String syntax = "java -cp path-finder-jar-with-dependencies.jar app.TraceTool " +
+                "--trace /home/documents/run.trace --generations 10-20 --searches";
+
+        String traceFilePathString = "";
+        String generationsString = "";
+        boolean showSearches = false;
+
+        try {
+            CommandLine cmdLine = parser.parse(options, args);
+
+            if (cmdLine.hasOption("h") || !cmdLine.hasOption("t")) {
+                HelpFormatter helpFormatter = new HelpFormatter();
+                helpFormatter.printHelp(syntax, options);
+                System.exit(0);
+            }
+
+            traceFilePathString = cmdLine.getOptionValue("t");
+            if (cmdLine.hasOption("g")) generationsString = cmdLine.getOptionValue("g");
+            if (cmdLine.hasOption("s")) showSearches = true;
+        }
+        catch(ParseException exception) {
+            System.out.println("Parsing failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+
+        // a single generation or an inclusive range of them
+        int firstGeneration = Integer.MAX_VALUE;
+        int lastGeneration = Integer.MIN_VALUE;
+        if (generationsString.length() != 0) {
+            String[] bounds = generationsString.split("-");
+            firstGeneration = Integer.parseInt(bounds[0]);
+            lastGeneration = Integer.parseInt(bounds[bounds.length - 1]);
+        }
+
+        try (TraceReader traceReader = new TraceReader(traceFilePathString)) {
+            System.out.print("Trace of a " + traceReader.getMazeSize() + "x" + traceReader.getMazeSize()
+                    + " maze, seed " + traceReader.getSeed() + "\n\n");
+
+            // children are rebuilt from their parents the way the run bred them
+            traceReader.setPredictor(new CrossoverPredictor(traceReader.getSeed()));
+
+            while (traceReader.next()) {
+                if (traceReader.getRecordType() == Tracer.GENERATION) {
+                    showGeneration(traceReader);
+
+                    int generation = traceReader.getGeneration();
+                    if (generation >= firstGeneration && generation <= lastGeneration) {
+                        showAgents(traceReader);
+                    }
+                }
+                else {
+                    showSearch(traceReader, showSearches);
+                }
+            }
+        }
+        catch(IOException exception) {
+            System.out.println("Trace read failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+    }
+
+    public static Options generateOptions() {
+        Options options = new Options();
+
+        Option trace = Option.builder("t").longOpt("trace")
+                .desc("path to the trace file [REQUIRED]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option generations = Option.builder("g").longOpt("generations")
+                .desc("generation or range of generations, e.g. 10-20, whose agents are replayed [OPTIONAL]")
+                .type(String.class)
+                .hasArg()
+                .build();
+        Option searches = Option.builder("s").longOpt("searches")
+                .desc("also print every cell expanded by the traced searches [OPTIONAL]")
+                .build();
+
+        options.addOption(trace);
+        options.addOption(generations);
+        options.addOption(searches);
+
+        options.addOption("h", "help", false, "show help");
+
+        return options;
+    }
+
+    public static void showGeneration(TraceReader traceReader) {
+        int[] scores = traceReader.getScores();
+        int bestScore = Integer.MAX_VALUE;
+        long totalScore = 0;
+
+        for (int score : scores) {
+            bestScore = Math.min(bestScore, score);
+            totalScore += score;
+        }
+
+        System.out.printf("Generation %d: %d agents, best score %d, mean score %.1f, %d words stored%n",
+                traceReader.getGeneration(), scores.length, bestScore, (double) totalScore / scores.length,
+                traceReader.getNumStoredWords());
+    }
+
+    public static void showAgents(TraceReader traceReader) {
+        long[] genomes = traceReader.getGenomes();
+        int[] scores = traceReader.getScores();
+        int numWordsPerAgent = traceReader.getNumWordsPerAgent();
+
+        StringBuilder agentsStrBuilder = new StringBuilder();
+        for (int agent = 0; agent < scores.length; agent++) {
+            agentsStrBuilder.append("[Agent] ").append(agent).append(": [");
+
+            for (int move = 0; move < traceReader.getNumAgentMoves(); move++) {
+                long word = genomes[agent * numWordsPerAgent + move / Agent.MOVES_PER_WORD];
+                int direction = (int) (word >>> (Agent.BITS_PER_MOVE * (move % Agent.MOVES_PER_WORD)) & Agent.MOVE_MASK);
+
+                if (move > 0) agentsStrBuilder.append(", ");
+                agentsStrBuilder.append(Agent.MOVE_NAMES[direction]);
+            }
+            agentsStrBuilder.append("] | Score = ").append(scores[agent]).append("\n");
+        }
+        System.out.print(agentsStrBuilder);
+    }
+
+    public static void showSearch(TraceReader traceReader, boolean showCells) {
+        int mazeSize = traceReader.getMazeSize();
+
+        System.out.print("Search from " + cellToString(traceReader.getSourceCell(), mazeSize) + " to "
+                + cellToString(traceReader.getTargetCell(), mazeSize) + ": "
+                + traceReader.getNumExpandedCells() + " expanded cells\n");
+
+        if (showCells) {
+            StringBuilder cellsStrBuilder = new StringBuilder();
+            for (int cell = 0; cell < traceReader.getNumExpandedCells(); cell++) {
+                cellsStrBuilder.append(cellToString(traceReader.getExpandedCells()[cell], mazeSize)).append(' ');
+            }
+            System.out.print(cellsStrBuilder.append("\n"));
+        }
+    }
+
+    private static String cellToString(int cell, int mazeSize) {
+        return "[" + cell / mazeSize + ", " + cell % mazeSize + "]";
+    }
+}
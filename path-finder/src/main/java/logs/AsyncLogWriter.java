@@ -0,0 +1,199 @@
+package logs;
+
+// built-in dependencies
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Background writer of the {@link Logger}.
+ *
+ * Logging threads copy their messages into a preallocated ring of chars and return; a
+ * single writer thread drains everything appended since its last pass in one batch,
+ * encoding it into a reused buffer and writing that to the log file channel. The ring
+ * is only locked to copy messages in and to move its indexes, never while writing.
+ */
+public class AsyncLogWriter {
+
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static final int BATCH_BYTES = 1 << 16;
+
+    private final char[] ring;
+    private final OverflowPolicy policy;
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer batch;
+    private final Thread writer;
+
+    // chars ever appended and ever written, both only grow
+    private long head;
+    private long tail;
+
+    private boolean closed;
+    private long numDropped;
+    private int numSampled;
+
+    public AsyncLogWriter(FileChannel channel, int capacity, OverflowPolicy policy) {
+        this.ring = new char[capacity];
+        this.policy = policy;
+        this.channel = channel;
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        this.writer = new Thread(this::drain, "log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // GETTERS
+
+    public synchronized long getNumDropped() {
+        return numDropped;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    // OTHERS
+
+    public synchronized void append(String data) {
+        if (closed) return;
+
+        if (policy == OverflowPolicy.BLOCK) {
+            appendBlocking(data);
+            return;
+        }
+
+        long used = head - tail;
+        if (policy == OverflowPolicy.SAMPLE) {
+            if (used < ring.length / 2) {
+                numSampled = 0;
+            }
+            else if (numSampled++ % OverflowPolicy.SAMPLE_INTERVAL != 0) {
+                numDropped++;
+                return;
+            }
+        }
+
+        if (data.length() > ring.length - used) {
+            numDropped++;
+            return;
+        }
+        copy(data, 0, data.length());
+        notifyAll();
+    }
+
+    private void appendBlocking(String data) {
+        // messages longer than the ring go in piece by piece as the writer makes room
+        for (int offset = 0; offset < data.length(); ) {
+            while (head - tail == ring.length && !closed) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (closed) return;
+
+            int numChars = (int) Math.min(ring.length - (head - tail), data.length() - offset);
+            copy(data, offset, numChars);
+            offset += numChars;
+            notifyAll();
+        }
+    }
+
+    private void copy(String data, int offset, int numChars) {
+        int start = (int) (head % ring.length);
+        int firstChars = Math.min(numChars, ring.length - start);
+
+        data.getChars(offset, offset + firstChars, ring, start);
+        if (firstChars < numChars) {
+            data.getChars(offset + firstChars, offset + numChars, ring, 0);
+        }
+        head += numChars;
+    }
+
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+
+        try {
+            writer.join();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (numDropped > 0) {
+            writeChars(CharBuffer.wrap("\n\n[logger] " + numDropped + " messages dropped (" + policy + ")\n"));
+            flushBatch();
+        }
+        channel.close();
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                long from;
+                long to;
+
+                synchronized (this) {
+                    while (head == tail && !closed) {
+                        wait();
+                    }
+                    if (head == tail) break;
+                    from = tail;
+                    to = head;
+                }
+
+                // producers cannot overwrite [from, to) until tail moves past it
+                int start = (int) (from % ring.length);
+                int numChars = (int) (to - from);
+                int firstChars = Math.min(numChars, ring.length - start);
+
+                writeChars(CharBuffer.wrap(ring, start, firstChars));
+                if (firstChars < numChars) {
+                    writeChars(CharBuffer.wrap(ring, 0, numChars - firstChars));
+                }
+                flushBatch();
+
+                synchronized (this) {
+                    tail = to;
+                    notifyAll();
+                }
+            }
+        }
+        catch (IOException exception) {
+            System.out.println("Logging failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeChars(CharBuffer chars) throws IOException {
+        while (encoder.encode(chars, batch, false).isOverflow()) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package logs;
+
+/**
+ * Rebuilds a genome from its parents in the previous generation, the way the genetic
+ * operators bred it. A {@link Tracer} only stores where a genome differs from its
+ * prediction, and a {@link TraceReader} given the same predictor undoes that.
+ */
+public interface GenomePredictor {
+
+    /**
+     * Writes the predicted words of agent {@code agent} of generation {@code generation}
+     * into {@code prediction}, from the parents found at the given offsets of the
+     * previous generation's genomes.
+     */
+    void predict(int generation, int agent, long[] parentGenomes, int fatherOffset, int motherOffset,
+                 int numWords, long[] prediction, int predictionOffset);
+}
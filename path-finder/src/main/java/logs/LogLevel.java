@@ -0,0 +1,37 @@
+package logs;
+
+/**
+ * Severity of a log message, from the most to the least important. A logger at a given
+ * level writes the messages of that level and of every level above it.
+ */
+public enum LogLevel {
+
+    ERROR,
+    WARN,
+
+    // run headers, results and statistics
+    INFO,
+
+    // per generation and per migration details, population dumps
+    DEBUG,
+
+    // every cell expanded by the searches
+    TRACE;
+
+    public static LogLevel fromName(String name) {
+        switch (name) {
+            case "error":
+                return ERROR;
+            case "warn":
+                return WARN;
+            case "info":
+                return INFO;
+            case "debug":
+                return DEBUG;
+            case "trace":
+                return TRACE;
+            default:
+                return null;
+        }
+    }
+}
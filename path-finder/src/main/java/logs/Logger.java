@@ -2,10 +2,16 @@ package logs;
 
 // built-in dependencies
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
 
 public class Logger {
 
     private FileWriter fileWriter;
+    private File logFile;
+    private AsyncLogWriter asyncWriter;
+    private LogLevel level = LogLevel.INFO;
     private static Logger INSTANCE;
 
     public static Logger getInstance() {
@@ -15,8 +21,26 @@ public class Logger {
         return INSTANCE;
     }
 
+    // GETTERS
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel.compareTo(level) <= 0;
+    }
+
+    // SETTERS
+
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+
     public void setLoggerObject(String logFilePath) {
-        File logFile = new File(logFilePath + "/path-finder-logs.txt");
+        closeAsyncWriter();
+
+        logFile = new File(logFilePath + "/path-finder-logs.txt");
         try {
             if(!logFile.createNewFile()) {
                 boolean deleted = logFile.delete();
@@ -33,7 +57,51 @@ public class Logger {
         }
     }
 
+    /**
+     * Switches to asynchronous logging: messages go into a ring buffer of the given
+     * number of chars, written out in batches by a background thread.
+     */
+    public void setAsync(int capacity, OverflowPolicy policy) {
+        try {
+            fileWriter.close();
+            fileWriter = null;
+            asyncWriter = new AsyncLogWriter(FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND), capacity, policy);
+        } catch (IOException exception) {
+            System.out.println("Logger build failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+    }
+
+    // OTHERS
+
+    public void log(LogLevel messageLevel, String data) {
+        if (isEnabled(messageLevel)) {
+            write(data);
+        }
+    }
+
+    /**
+     * Builds the message only when its level is enabled.
+     */
+    public void log(LogLevel messageLevel, Supplier<String> message) {
+        if (isEnabled(messageLevel)) {
+            write(message.get());
+        }
+    }
+
+    /**
+     * Logs at {@link LogLevel#INFO}.
+     */
     public void log(String data) {
+        log(LogLevel.INFO, data);
+    }
+
+    private void write(String data) {
+        if (asyncWriter != null) {
+            asyncWriter.append(data);
+            return;
+        }
         try {
             fileWriter.write(data);
         } catch (IOException exception) {
@@ -43,6 +111,10 @@ public class Logger {
     }
 
     public void close() {
+        if (asyncWriter != null) {
+            closeAsyncWriter();
+            return;
+        }
         try {
             fileWriter.flush();
             fileWriter.close();
@@ -51,4 +123,17 @@ public class Logger {
             System.exit(0);
         }
     }
-}
\ No newline at end of file
+
+    private void closeAsyncWriter() {
+        if (asyncWriter == null) return;
+
+        // everything logged so far is written before the file is closed
+        try {
+            asyncWriter.close();
+            asyncWriter = null;
+        } catch (IOException exception) {
+            System.out.println("Logger closing failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package logs;
+
+/**
+ * What the asynchronous logger does with a message that does not fit in its ring buffer.
+ */
+public enum OverflowPolicy {
+
+    // the logging thread waits for the writer to make room, nothing is lost
+    BLOCK,
+
+    // the message is dropped and counted
+    DROP,
+
+    // past half full only one message in SAMPLE_INTERVAL is kept, the rest are dropped
+    SAMPLE;
+
+    public static final int SAMPLE_INTERVAL = 16;
+
+    public static OverflowPolicy fromName(String name) {
+        switch (name) {
+            case "block":
+                return BLOCK;
+            case "drop":
+                return DROP;
+            case "sample":
+                return SAMPLE;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package logs;
+
+// built-in dependencies
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads back a trace written by the {@link Tracer}, one record at a time, undoing the
+ * deltas so every generation comes out whole. Generations bred from parents need the
+ * same {@link GenomePredictor} the trace was written with.
+ */
+public class TraceReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer file;
+
+    private final int mazeSize;
+    private final long seed;
+
+    private GenomePredictor predictor;
+    private byte recordType;
+
+    // last generation read
+    private int generation;
+    private int numAgents;
+    private int numAgentMoves;
+    private int numWordsPerAgent;
+    private long[] genomes = new long[0];
+    private long[] previousGenomes = new long[0];
+    private int[] scores = new int[0];
+    private int[] fathers = new int[0];
+    private int[] mothers = new int[0];
+    private int numStoredWords;
+
+    // last search read
+    private int sourceCell;
+    private int targetCell;
+    private int[] expandedCells = new int[1024];
+    private int numExpandedCells;
+
+    public TraceReader(String traceFilePath) throws IOException {
+        channel = FileChannel.open(Paths.get(traceFilePath), StandardOpenOption.READ);
+        file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        file.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (channel.size() < Tracer.HEADER_BYTES || file.getInt() != Tracer.MAGIC) {
+            throw new IOException("not a trace file");
+        }
+        if (file.getShort() != Tracer.VERSION) {
+            throw new IOException("unsupported trace version " + file.getShort(4));
+        }
+        file.getShort();
+        mazeSize = file.getInt();
+        seed = file.getLong();
+    }
+
+    // GETTERS
+
+    public int getMazeSize() {
+        return mazeSize;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public byte getRecordType() {
+        return recordType;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getNumAgents() {
+        return numAgents;
+    }
+
+    public int getNumAgentMoves() {
+        return numAgentMoves;
+    }
+
+    public int getNumWordsPerAgent() {
+        return numWordsPerAgent;
+    }
+
+    public long[] getGenomes() {
+        return genomes;
+    }
+
+    public int[] getScores() {
+        return scores;
+    }
+
+    public int getNumStoredWords() {
+        return numStoredWords;
+    }
+
+    public int getSourceCell() {
+        return sourceCell;
+    }
+
+    public int getTargetCell() {
+        return targetCell;
+    }
+
+    public int[] getExpandedCells() {
+        return expandedCells;
+    }
+
+    public int getNumExpandedCells() {
+        return numExpandedCells;
+    }
+
+    // SETTERS
+
+    public void setPredictor(GenomePredictor predictor) {
+        this.predictor = predictor;
+    }
+
+    // OTHERS
+
+    /**
+     * Reads the next record, false at the end of the trace or at a record cut short.
+     */
+    public boolean next() throws IOException {
+        if (!file.hasRemaining()) return false;
+
+        try {
+            recordType = file.get();
+
+            if (recordType == Tracer.GENERATION) {
+                readGeneration();
+            }
+            else if (recordType == Tracer.SEARCH) {
+                readSearch();
+            }
+            else {
+                throw new IOException("unknown trace record type " + recordType);
+            }
+            return true;
+        }
+        catch (BufferUnderflowException exception) {
+            return false;
+        }
+    }
+
+    private void readGeneration() throws IOException {
+        generation = (int) getVarint();
+        int recordAgents = (int) getVarint();
+        numAgentMoves = (int) getVarint();
+        int recordWordsPerAgent = (int) getVarint();
+
+        // the same reset as the writer's when the population changes shape
+        if (recordAgents != numAgents || recordWordsPerAgent != numWordsPerAgent) {
+            numAgents = recordAgents;
+            numWordsPerAgent = recordWordsPerAgent;
+            genomes = new long[numAgents * numWordsPerAgent];
+            previousGenomes = new long[numAgents * numWordsPerAgent];
+            scores = new int[numAgents];
+            fathers = new int[numAgents];
+            mothers = new int[numAgents];
+        }
+
+        // the generation just read becomes the one this is predicted from
+        long[] parentGenomes = genomes;
+        genomes = previousGenomes;
+        previousGenomes = parentGenomes;
+
+        for (int agent = 0; agent < numAgents; agent++) {
+            scores[agent] += (int) unzigzag(getVarint());
+
+            long father = getVarint();
+            if (father == 0) {
+                fathers[agent] = -1;
+                mothers[agent] = -1;
+                continue;
+            }
+            fathers[agent] = (int) father - 1;
+            mothers[agent] = (int) getVarint();
+            if (fathers[agent] < 0 || fathers[agent] >= numAgents
+                    || mothers[agent] < 0 || mothers[agent] >= numAgents) {
+                throw new IOException("corrupt parents at generation " + generation);
+            }
+            if (predictor == null) {
+                throw new IOException("generation " + generation + " needs a genome predictor");
+            }
+        }
+
+        for (int agent = 0; agent < numAgents; agent++) {
+            int offset = agent * numWordsPerAgent;
+
+            if (fathers[agent] < 0) {
+                System.arraycopy(previousGenomes, offset, genomes, offset, numWordsPerAgent);
+            }
+            else {
+                predictor.predict(generation, agent, previousGenomes, fathers[agent] * numWordsPerAgent,
+                        mothers[agent] * numWordsPerAgent, numWordsPerAgent, genomes, offset);
+            }
+        }
+
+        numStoredWords = 0;
+        for (int blockStart = 0; blockStart < genomes.length; blockStart += 64) {
+            long mispredicted = file.getLong();
+            if (blockStart + 64 > genomes.length && mispredicted >>> (genomes.length - blockStart) != 0) {
+                throw new IOException("corrupt genome block at generation " + generation);
+            }
+            numStoredWords += Long.bitCount(mispredicted);
+
+            for (; mispredicted != 0; mispredicted &= mispredicted - 1) {
+                int word = blockStart + Long.numberOfTrailingZeros(mispredicted);
+                int shift = file.get();
+                genomes[word] ^= shift == Tracer.RAW_WORD ? file.getLong() : getVarint() << shift;
+            }
+        }
+    }
+
+    private void readSearch() {
+        sourceCell = (int) getVarint();
+        targetCell = (int) getVarint();
+        numExpandedCells = (int) getVarint();
+
+        // every expanded cell takes at least a byte, fewer left means the search was cut short
+        if (numExpandedCells > file.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (numExpandedCells > expandedCells.length) {
+            expandedCells = new int[Math.max(numExpandedCells, 2 * expandedCells.length)];
+        }
+
+        int cell = 0;
+        for (int expanded = 0; expanded < numExpandedCells; expanded++) {
+            cell += (int) unzigzag(getVarint());
+            expandedCells[expanded] = cell;
+        }
+    }
+
+    private long getVarint() {
+        long value = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte part = file.get();
+            value |= (long) (part & 0x7f) << shift;
+            if (part >= 0) return value;
+        }
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
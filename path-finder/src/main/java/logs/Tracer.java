@@ -0,0 +1,258 @@
+package logs;
+
+// built-in dependencies
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary trace of a run, the compact counterpart of the text log. Little-endian,
+ * append-only, with varints for every count, index and score.
+ *
+ * <pre>
+ * header      magic 'P' 'F' 'T' 'R', version short, reserved short, maze size int, seed long
+ * GENERATION  1, generation, agents, moves per agent, words per agent,
+ *             per agent: zigzag score delta, then father + 1 and mother, or 0 without parents,
+ *             then per block of 64 genome words: a raw long with one bit set per word
+ *             that differs from its prediction, followed by each of those words XOR its
+ *             prediction, as its trailing zero bits and a varint of the rest, or RAW_WORD
+ *             and a raw long when that is longer
+ * SEARCH      2, source cell, target cell, number of expanded cells,
+ *             one zigzag(cell - previous cell) per expanded cell
+ * </pre>
+ *
+ * Scores are deltas against the same agent of the previous generation. A bred agent is
+ * predicted from its parents by a {@link GenomePredictor}, so only the words mutation
+ * touched are stored; an agent without parents is predicted as the same agent of the
+ * previous generation. A word with one mutated move then takes two bytes. A trace cut
+ * short by a crash is read up to its last complete record.
+ *
+ * Each generation and each search is written by a single call, on the thread that ran
+ * it; nothing is traced per move or per expanded cell.
+ */
+public class Tracer {
+
+    public static final int MAGIC = 'P' | 'F' << 8 | 'T' << 16 | 'R' << 24;
+    public static final short VERSION = 2;
+
+    public static final byte GENERATION = 1;
+    public static final byte SEARCH = 2;
+
+    public static final int HEADER_BYTES = 20;
+    public static final byte RAW_WORD = 64;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private static Tracer INSTANCE;
+
+    private FileChannel channel;
+    // encoded by hand into a heap array, little-endian words through a view of it
+    private byte[] buffer;
+    private ByteBuffer bufferWords;
+    private int position;
+    private GenomePredictor predictor;
+
+    // the previous generation, which the next one is predicted from
+    private long[] previousGenomes = new long[0];
+    private int[] previousScores = new int[0];
+    private long[] residuals = new long[0];
+
+    private long bytesWritten;
+
+    public static Tracer getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new Tracer();
+        }
+        return INSTANCE;
+    }
+
+    // GETTERS
+
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    // SETTERS
+
+    public void setTraceObject(String traceFilePath, int mazeSize, long seed) {
+        try {
+            channel = FileChannel.open(Paths.get(traceFilePath), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = new byte[BUFFER_BYTES];
+            bufferWords = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+            position = 0;
+            bytesWritten = 0;
+            previousGenomes = new long[0];
+            previousScores = new int[0];
+
+            bufferWords.putInt(0, MAGIC);
+            bufferWords.putShort(4, VERSION);
+            bufferWords.putShort(6, (short) 0);
+            bufferWords.putInt(8, mazeSize);
+            bufferWords.putLong(12, seed);
+            position = HEADER_BYTES;
+        } catch (IOException exception) {
+            System.out.println("Tracer build failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+    }
+
+    public synchronized void setPredictor(GenomePredictor predictor) {
+        this.predictor = predictor;
+    }
+
+    // OTHERS
+
+    /**
+     * Traces a whole generation. Parents are indexes into the previous traced generation,
+     * null when the generation was not bred from it.
+     */
+    public synchronized void traceGeneration(int generation, int numAgentMoves, int numWordsPerAgent,
+                                             long[] genomes, int[] scores, int[] fathers, int[] mothers) {
+        int numAgents = scores.length;
+
+        // a population of another shape starts again from zero, and has no parents in the last one
+        if (previousGenomes.length != genomes.length || previousScores.length != numAgents) {
+            previousGenomes = new long[genomes.length];
+            previousScores = new int[numAgents];
+            residuals = new long[genomes.length];
+            fathers = null;
+        }
+        if (predictor == null) {
+            fathers = null;
+        }
+
+        ensureRemaining(40);
+        buffer[position++] = GENERATION;
+        putVarint(generation);
+        putVarint(numAgents);
+        putVarint(numAgentMoves);
+        putVarint(numWordsPerAgent);
+
+        for (int agent = 0; agent < numAgents; agent++) {
+            int offset = agent * numWordsPerAgent;
+
+            ensureRemaining(30);
+            putVarint(zigzag(scores[agent] - previousScores[agent]));
+
+            if (fathers == null) {
+                putVarint(0);
+                System.arraycopy(previousGenomes, offset, residuals, offset, numWordsPerAgent);
+            }
+            else {
+                putVarint(fathers[agent] + 1);
+                putVarint(mothers[agent]);
+                predictor.predict(generation, agent, previousGenomes, fathers[agent] * numWordsPerAgent,
+                        mothers[agent] * numWordsPerAgent, numWordsPerAgent, residuals, offset);
+            }
+        }
+
+        for (int blockStart = 0; blockStart < genomes.length; blockStart += 64) {
+            putResiduals(genomes, blockStart, Math.min(blockStart + 64, genomes.length));
+        }
+
+        // the traced generation is what the next one is predicted from
+        System.arraycopy(genomes, 0, previousGenomes, 0, genomes.length);
+        System.arraycopy(scores, 0, previousScores, 0, numAgents);
+    }
+
+    public synchronized void traceSearch(int sourceCell, int targetCell, int[] expandedCells, int numExpandedCells) {
+        ensureRemaining(20);
+        buffer[position++] = SEARCH;
+        putVarint(sourceCell);
+        putVarint(targetCell);
+        putVarint(numExpandedCells);
+
+        int previousCell = 0;
+        for (int cell = 0; cell < numExpandedCells; cell++) {
+            ensureRemaining(10);
+            putVarint(zigzag(expandedCells[cell] - previousCell));
+            previousCell = expandedCells[cell];
+        }
+    }
+
+    public synchronized void close() {
+        if (channel == null) return;
+
+        try {
+            flush();
+            channel.close();
+        } catch (IOException exception) {
+            System.out.println("Tracer closing failed. Reason: " + exception.getMessage());
+            System.exit(0);
+        }
+        channel = null;
+    }
+
+    /**
+     * Puts the words of a block that differ from their prediction, after a mask of them.
+     */
+    private void putResiduals(long[] genomes, int blockStart, int blockEnd) {
+        // one bit per mispredicted word, set without branching
+        long mispredicted = 0;
+        for (int word = blockStart; word < blockEnd; word++) {
+            long residual = residuals[word] ^ genomes[word];
+            residuals[word] = residual;
+            mispredicted |= (residual | -residual) >>> 63 << (word - blockStart);
+        }
+
+        ensureRemaining(8);
+        bufferWords.putLong(position, mispredicted);
+        position += 8;
+
+        for (; mispredicted != 0; mispredicted &= mispredicted - 1) {
+            long residual = residuals[blockStart + Long.numberOfTrailingZeros(mispredicted)];
+            int shift = Long.numberOfTrailingZeros(residual);
+
+            // a varint holds 7 bits a byte, so past 56 bits the raw word is shorter
+            ensureRemaining(9);
+            if (residual >>> shift >>> 56 != 0) {
+                buffer[position++] = RAW_WORD;
+                bufferWords.putLong(position, residual);
+                position += 8;
+            }
+            else {
+                buffer[position++] = (byte) shift;
+                putVarint(residual >>> shift);
+            }
+        }
+    }
+
+    private void ensureRemaining(int numBytes) {
+        if (buffer.length - position < numBytes) {
+            try {
+                flush();
+            } catch (IOException exception) {
+                System.out.println("Tracing failed. Reason: " + exception.getMessage());
+                System.exit(0);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        ByteBuffer encoded = ByteBuffer.wrap(buffer, 0, position);
+        while (encoded.hasRemaining()) {
+            bytesWritten += channel.write(encoded);
+        }
+        position = 0;
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer[position++] = (byte) (value & 0x7f | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+}
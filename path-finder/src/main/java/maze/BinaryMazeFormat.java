@@ -0,0 +1,258 @@
+package maze;
+
+// built-in dependencies
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary maze file, little-endian throughout.
+ *
+ * <pre>
+ *  0  magic           'P' 'F' 'M' 'Z'
+ *  4  version         short
+ *  6  bits per cell   short, only {@link #ENCODING_2BIT}
+ *  8  maze size       int
+ * 12  rows per chunk  int
+ * 16  number of chunks int
+ * 20  header checksum int, CRC32 of bytes 0..19 and of the chunk table
+ * 24  chunk table     one CRC32 int per chunk of rows
+ *     cell rows       ceil(size / 32) longs per row, cell y at bits 2 * (y % 32)
+ * </pre>
+ *
+ * Cells are coded 0 wall, 1 free, 2 exit and 3 entrance. Rows have a fixed width, so
+ * any chunk can be located, read and checked on its own.
+ */
+public class BinaryMazeFormat {
+
+    public static final int MAGIC = 'P' | 'F' << 8 | 'M' << 16 | 'Z' << 24;
+    public static final short VERSION = 1;
+    public static final short ENCODING_2BIT = 2;
+    public static final int DEFAULT_ROWS_PER_CHUNK = 256;
+
+    private static final int HEADER_BYTES = 24;
+    private static final int CELLS_PER_WORD = 32;
+    private static final long EVEN_BITS = 0x5555555555555555L;
+
+    private static final long WALL_CODE = 0;
+    private static final long FREE_CODE = 1;
+    private static final long EXIT_CODE = 2;
+    private static final long ENTRANCE_CODE = 3;
+
+    private BinaryMazeFormat() {
+    }
+
+    // OTHERS
+
+    public static boolean isBinary(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_BYTES) return false;
+
+        ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(magic, 0);
+        magic.flip();
+        return magic.getInt() == MAGIC;
+    }
+
+    public static MazeGrid read(FileChannel channel) throws IOException {
+        MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        file.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException("not a binary maze file");
+        }
+        if (file.getShort(4) != VERSION) {
+            throw new IOException("unsupported binary maze version " + file.getShort(4));
+        }
+        if (file.getShort(6) != ENCODING_2BIT) {
+            throw new IOException("unsupported cell encoding " + file.getShort(6));
+        }
+
+        int mazeSize = file.getInt(8);
+        int rowsPerChunk = file.getInt(12);
+        int numChunks = file.getInt(16);
+
+        if (mazeSize <= 0 || mazeSize > MazeGrid.MAX_SIZE || rowsPerChunk <= 0 || numChunks != (mazeSize + rowsPerChunk - 1) / rowsPerChunk) {
+            throw new IOException("invalid binary maze header");
+        }
+
+        int rowWords = (mazeSize + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+        long dataStart = HEADER_BYTES + 4L * numChunks;
+        if (channel.size() != dataStart + 8L * rowWords * mazeSize) {
+            throw new IOException("truncated binary maze file");
+        }
+        if (file.getInt(20) != headerChecksum(file, numChunks)) {
+            throw new IOException("binary maze header checksum mismatch");
+        }
+
+        MazeGrid maze = new MazeGrid(mazeSize);
+        long[] walkable = maze.getWalkablePlane();
+        CRC32 crc = new CRC32();
+
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            int firstRow = chunk * rowsPerChunk;
+            int lastRow = Math.min(firstRow + rowsPerChunk, mazeSize);
+            int chunkStart = (int) (dataStart + 8L * rowWords * firstRow);
+            int chunkEnd = (int) (dataStart + 8L * rowWords * lastRow);
+
+            ByteBuffer chunkBytes = file.duplicate();
+            chunkBytes.limit(chunkEnd).position(chunkStart);
+            crc.reset();
+            crc.update(chunkBytes);
+            if ((int) crc.getValue() != file.getInt(HEADER_BYTES + 4 * chunk)) {
+                throw new IOException("binary maze chunk " + chunk + " checksum mismatch");
+            }
+
+            for (int row = firstRow; row < lastRow; row++) {
+                int rowStart = (int) (dataStart + 8L * rowWords * row);
+
+                for (int rowWord = 0; rowWord < rowWords; rowWord++) {
+                    long codes = file.getLong(rowStart + 8 * rowWord);
+                    if (codes == 0) continue;
+
+                    int column = rowWord * CELLS_PER_WORD;
+                    int numCells = Math.min(CELLS_PER_WORD, mazeSize - column);
+                    long low = codes & EVEN_BITS;
+                    long high = (codes >>> 1) & EVEN_BITS;
+
+                    // free, exit and entrance codes are all walkable, only code 2 is an exit
+                    writeBits(walkable, row * mazeSize + column, compressEvenBits(low | high), numCells);
+
+                    long exits = compressEvenBits(high & ~low);
+                    while (exits != 0) {
+                        maze.addExit(row * mazeSize + column + Long.numberOfTrailingZeros(exits));
+                        exits &= exits - 1;
+                    }
+
+                    long entrances = compressEvenBits(high & low);
+                    while (entrances != 0) {
+                        maze.setCell(row, column + Long.numberOfTrailingZeros(entrances), MazeGrid.ENTRANCE);
+                        entrances &= entrances - 1;
+                    }
+                }
+            }
+        }
+        return maze;
+    }
+
+    public static void write(MazeGrid maze, String path, int rowsPerChunk) throws IOException {
+        int mazeSize = maze.size();
+        int rowWords = (mazeSize + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+        int numChunks = (mazeSize + rowsPerChunk - 1) / rowsPerChunk;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + 4 * numChunks).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION).putShort(ENCODING_2BIT)
+                .putInt(mazeSize).putInt(rowsPerChunk).putInt(numChunks).putInt(0);
+
+        long[] codes = new long[rowWords];
+        int[] exits = maze.getExits();
+        int[] entrances = maze.getEntrances();
+        ByteBuffer chunkBytes = ByteBuffer.allocate(8 * rowWords * Math.min(rowsPerChunk, mazeSize))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            // cells go after the header, which is written last once every chunk checksum is known
+            channel.position(header.capacity());
+
+            for (int chunk = 0; chunk < numChunks; chunk++) {
+                int firstRow = chunk * rowsPerChunk;
+                int lastRow = Math.min(firstRow + rowsPerChunk, mazeSize);
+                chunkBytes.clear();
+
+                for (int row = firstRow; row < lastRow; row++) {
+                    encodeRow(maze, exits, entrances, row, codes);
+                    for (long word : codes) {
+                        chunkBytes.putLong(word);
+                    }
+                }
+                chunkBytes.flip();
+
+                crc.reset();
+                crc.update(chunkBytes.array(), 0, chunkBytes.limit());
+                header.putInt(HEADER_BYTES + 4 * chunk, (int) crc.getValue());
+
+                while (chunkBytes.hasRemaining()) {
+                    channel.write(chunkBytes);
+                }
+            }
+
+            header.putInt(20, headerChecksum(header, numChunks));
+            header.rewind();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    private static void encodeRow(MazeGrid maze, int[] exits, int[] entrances, int row, long[] codes) {
+        int mazeSize = maze.size();
+
+        for (int rowWord = 0; rowWord < codes.length; rowWord++) {
+            long word = 0;
+            int column = rowWord * CELLS_PER_WORD;
+            int numCells = Math.min(CELLS_PER_WORD, mazeSize - column);
+
+            for (int offset = 0; offset < numCells; offset++) {
+                int cell = row * mazeSize + column + offset;
+                long code = maze.walkableBit(cell) == 0 ? WALL_CODE : FREE_CODE;
+                word |= code << (2 * offset);
+            }
+            codes[rowWord] = word;
+        }
+
+        // exits and entrances are few, so they are patched in afterwards
+        patchCodes(exits, EXIT_CODE, row, mazeSize, codes);
+        patchCodes(entrances, ENTRANCE_CODE, row, mazeSize, codes);
+    }
+
+    private static void patchCodes(int[] cells, long code, int row, int mazeSize, long[] codes) {
+        for (int cell : cells) {
+            if (cell / mazeSize == row) {
+                int column = cell % mazeSize;
+                int shift = 2 * (column % CELLS_PER_WORD);
+                codes[column / CELLS_PER_WORD] = codes[column / CELLS_PER_WORD] & ~(3L << shift) | code << shift;
+            }
+        }
+    }
+
+    private static int headerChecksum(ByteBuffer header, int numChunks) {
+        CRC32 crc = new CRC32();
+
+        for (int offset = 0; offset < HEADER_BYTES + 4 * numChunks; offset++) {
+            // the checksum field itself counts as zero
+            crc.update(offset >= 20 && offset < HEADER_BYTES ? 0 : header.get(offset));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static long compressEvenBits(long bits) {
+        // gather bits 0, 2, 4, ... 62 into the low 32 bits
+        bits &= EVEN_BITS;
+        bits = (bits | (bits >>> 1)) & 0x3333333333333333L;
+        bits = (bits | (bits >>> 2)) & 0x0f0f0f0f0f0f0f0fL;
+        bits = (bits | (bits >>> 4)) & 0x00ff00ff00ff00ffL;
+        bits = (bits | (bits >>> 8)) & 0x0000ffff0000ffffL;
+        bits = (bits | (bits >>> 16)) & 0x00000000ffffffffL;
+        return bits;
+    }
+
+    private static void writeBits(long[] plane, int cell, long bits, int numCells) {
+        bits &= numCells == 64 ? -1L : (1L << numCells) - 1;
+        if (bits == 0) return;
+
+        int word = cell >>> 6;
+        int shift = cell & 63;
+
+        plane[word] |= bits << shift;
+        if (shift + numCells > 64) {
+            plane[word + 1] |= bits >>> (64 - shift);
+        }
+    }
+}
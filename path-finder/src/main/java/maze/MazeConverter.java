@@ -0,0 +1,67 @@
+package maze;
+
+// built-in dependencies
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts a maze file between the text format and the {@link BinaryMazeFormat}.
+ * The direction follows the input: text becomes binary and binary becomes text.
+ */
+public class MazeConverter {
+
+    private final MazeLoader mazeLoader;
+
+    private long bytesWritten;
+
+    public MazeConverter() {
+        this.mazeLoader = new MazeLoader();
+    }
+
+    // GETTERS
+
+    public MazeLoader getMazeLoader() {
+        return mazeLoader;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // OTHERS
+
+    public void convert(String inputPath, String outputPath, int rowsPerChunk) throws IOException {
+        MazeGrid maze = mazeLoader.load(inputPath);
+
+        if (mazeLoader.isBinary()) {
+            writeText(maze, outputPath);
+        }
+        else {
+            BinaryMazeFormat.write(maze, outputPath, rowsPerChunk);
+        }
+        bytesWritten = new File(outputPath).length();
+    }
+
+    public static void writeText(MazeGrid maze, String path) throws IOException {
+        int mazeSize = maze.size();
+        byte[] line = new byte[2 * mazeSize];
+
+        try (OutputStream file = new BufferedOutputStream(new FileOutputStream(path), 1 << 16)) {
+            file.write((mazeSize + "\n").getBytes(StandardCharsets.US_ASCII));
+
+            // same layout as the hand-written mazes: cells separated by single spaces
+            for (int x = 0; x < mazeSize; x++) {
+                for (int y = 0; y < mazeSize; y++) {
+                    line[2 * y] = (byte) maze.charAt(x, y);
+                    line[2 * y + 1] = ' ';
+                }
+                line[line.length - 1] = '\n';
+                file.write(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package maze;
+
+// built-in dependencies
+import java.util.Arrays;
+
+/**
+ * Square maze stored as bit planes instead of a {@code char[][]}.
+ *
+ * Cells are addressed by {@code x * size + y}. The walkable plane holds one bit per
+ * cell for free cells ('0'), exits ('S') and entrances ('E'); every other cell is a
+ * wall. The few exits and entrances are kept as plain lists of cell indexes, so a
+ * 16k x 16k maze takes 32 MB this way instead of 512 MB.
+ */
+public class MazeGrid {
+
+    public static final char FREE = '0';
+    public static final char WALL = '1';
+    public static final char EXIT = 'S';
+    public static final char ENTRANCE = 'E';
+
+    // largest side whose cell indexes still fit an int
+    public static final int MAX_SIZE = 46340;
+
+    private final int size;
+
+    private final long[] walkable;
+
+    private final CellList exits;
+    private final CellList entrances;
+
+    private long fingerprint;
+    private boolean fingerprinted;
+
+    /**
+     * Cell indexes of one kind of special cell, in no particular order.
+     */
+    private static final class CellList {
+
+        private int[] cells = new int[1];
+        private int numCells;
+
+        private boolean contains(int cell) {
+            for (int index = 0; index < numCells; index++) {
+                if (cells[index] == cell) return true;
+            }
+            return false;
+        }
+
+        private void add(int cell) {
+            if (numCells == cells.length) {
+                cells = Arrays.copyOf(cells, 2 * cells.length);
+            }
+            cells[numCells++] = cell;
+        }
+
+        private void remove(int cell) {
+            for (int index = 0; index < numCells; index++) {
+                if (cells[index] == cell) {
+                    cells[index] = cells[--numCells];
+                    return;
+                }
+            }
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(cells, numCells);
+        }
+
+        private long hash(long salt) {
+            // special cells are few, so an order-independent sum is enough
+            long hash = 0;
+            for (int index = 0; index < numCells; index++) {
+                hash += mix(salt ^ (cells[index] + 1));
+            }
+            return hash;
+        }
+    }
+
+    public MazeGrid(int size) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("maze side " + size + " is out of range, at most " + MAX_SIZE);
+        }
+        int numWords = (int) (((long) size * size + 63) >>> 6);
+
+        this.size = size;
+        this.walkable = new long[numWords];
+        this.exits = new CellList();
+        this.entrances = new CellList();
+    }
+
+    public static MazeGrid fromChars(char[][] maze, int size) {
+        MazeGrid grid = new MazeGrid(size);
+
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                grid.setCell(x, y, maze[x][y]);
+            }
+        }
+        return grid;
+    }
+
+    // GETTERS
+
+    public int size() {
+        return size;
+    }
+
+    public int index(int x, int y) {
+        return x * size + y;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < size && y >= 0 && y < size;
+    }
+
+    public int walkableBit(int cell) {
+        return (int) (walkable[cell >>> 6] >>> cell) & 1;
+    }
+
+    public boolean isWalkable(int cell) {
+        return walkableBit(cell) != 0;
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return walkableBit(x * size + y) != 0;
+    }
+
+    public boolean isExit(int cell) {
+        return exits.contains(cell);
+    }
+
+    public boolean isEntrance(int cell) {
+        return entrances.contains(cell);
+    }
+
+    public int[] getExits() {
+        return exits.toArray();
+    }
+
+    public int[] getEntrances() {
+        return entrances.toArray();
+    }
+
+    public char charAt(int x, int y) {
+        int cell = x * size + y;
+
+        if (!isWalkable(cell)) return WALL;
+        if (isExit(cell)) return EXIT;
+        if (isEntrance(cell)) return ENTRANCE;
+        return FREE;
+    }
+
+    public long[] getWalkablePlane() {
+        return walkable;
+    }
+
+    public int countFreeCells() {
+        // free cells and exits, the cells agents are given one move for
+        long count = 0;
+        for (long word : walkable) {
+            count += Long.bitCount(word);
+        }
+        return (int) count - entrances.numCells;
+    }
+
+    public long fingerprint() {
+        if (!fingerprinted) {
+            fingerprint = computeFingerprint();
+            fingerprinted = true;
+        }
+        return fingerprint;
+    }
+
+    // SETTERS
+
+    public void setCell(int x, int y, char mazeObject) {
+        int cell = x * size + y;
+        long bit = 1L << cell;
+        int word = cell >>> 6;
+
+        boolean isWalkable = mazeObject == FREE || mazeObject == EXIT || mazeObject == ENTRANCE;
+
+        walkable[word] = isWalkable ? walkable[word] | bit : walkable[word] & ~bit;
+
+        exits.remove(cell);
+        entrances.remove(cell);
+        if (mazeObject == EXIT) {
+            exits.add(cell);
+        }
+        else if (mazeObject == ENTRANCE) {
+            entrances.add(cell);
+        }
+
+        fingerprinted = false;
+    }
+
+    public void setPlanes(long[] walkablePlane, int[] exitCells, int[] entranceCells) {
+        System.arraycopy(walkablePlane, 0, walkable, 0, walkable.length);
+
+        exits.numCells = 0;
+        for (int cell : exitCells) {
+            exits.add(cell);
+        }
+        entrances.numCells = 0;
+        for (int cell : entranceCells) {
+            entrances.add(cell);
+        }
+        fingerprinted = false;
+    }
+
+    /**
+     * Marks an exit on a freshly built grid whose walkable bit the caller already set.
+     */
+    public void addExit(int cell) {
+        exits.add(cell);
+        fingerprinted = false;
+    }
+
+    // OTHERS
+
+    private long computeFingerprint() {
+        long hash = mix(size);
+
+        for (int word = 0; word < walkable.length; word++) {
+            hash = mix(hash ^ walkable[word]) + word;
+        }
+        return mix(hash ^ exits.hash(EXIT) ^ mix(entrances.hash(ENTRANCE)));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,164 @@
+package maze;
+
+// built-in dependencies
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming parser for the text maze format: a first line with the maze size and then
+ * one line per row, cells optionally separated by spaces. Files in the
+ * {@link BinaryMazeFormat} are detected by their magic number and read by it instead.
+ *
+ * The file is memory-mapped and parsed in a single pass straight into the bit planes
+ * of a {@link MazeGrid}, without building a String per line. The same pass counts the
+ * free cells and exits, which is the number of moves every agent is given.
+ */
+public class MazeLoader {
+
+    // a single mapping cannot exceed 2 GB, larger files are mapped window by window
+    private static final long MAX_WINDOW = Integer.MAX_VALUE;
+
+    private int numAgentMoves;
+    private long bytesRead;
+    private long elapsedNanos;
+    private boolean binary;
+
+    // parser state, kept across mapping windows
+    private MazeGrid maze;
+    private long[] walkable;
+    private int mazeSize;
+    private boolean inHeader;
+    private int row;
+    private int column;
+
+    // GETTERS
+
+    public int getNumAgentMoves() {
+        return numAgentMoves;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public double getThroughput() {
+        // MB/s
+        return elapsedNanos == 0 ? 0 : (bytesRead / (1024.0 * 1024.0)) / (elapsedNanos / 1e9);
+    }
+
+    // OTHERS
+
+    public MazeGrid load(String path) throws IOException {
+        long startTime = System.nanoTime();
+
+        numAgentMoves = 0;
+        bytesRead = 0;
+        binary = false;
+        maze = null;
+        mazeSize = 0;
+        inHeader = true;
+        row = 0;
+        column = 0;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+
+            // binary files are told apart from text ones by their magic number
+            if (BinaryMazeFormat.isBinary(channel)) {
+                MazeGrid loadedMaze = BinaryMazeFormat.read(channel);
+
+                binary = true;
+                numAgentMoves = loadedMaze.countFreeCells();
+                bytesRead = fileSize;
+                elapsedNanos = System.nanoTime() - startTime;
+                return loadedMaze;
+            }
+
+            for (long position = 0; position < fileSize; position += MAX_WINDOW) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                        position, Math.min(MAX_WINDOW, fileSize - position));
+                parse(window);
+            }
+            bytesRead = fileSize;
+        }
+
+        if (inHeader) {
+            endHeader();
+        }
+
+        MazeGrid loadedMaze = maze;
+        maze = null;
+        walkable = null;
+
+        elapsedNanos = System.nanoTime() - startTime;
+        return loadedMaze;
+    }
+
+    private void parse(MappedByteBuffer window) throws IOException {
+        int limit = window.limit();
+
+        for (int offset = 0; offset < limit; offset++) {
+            byte element = window.get(offset);
+
+            if (inHeader) {
+                if (element >= '0' && element <= '9') {
+                    // stops growing once past the limit, so long headers cannot overflow
+                    mazeSize = Math.min(10 * mazeSize + (element - '0'), MazeGrid.MAX_SIZE + 1);
+                }
+                else if (element == '\n') {
+                    endHeader();
+                }
+                else if (element != ' ' && element != '\r') {
+                    throw new IOException("invalid maze size header");
+                }
+            }
+            else if (element == '\n') {
+                row++;
+                column = 0;
+            }
+            else if (element != ' ' && element != '\r' && row < mazeSize && column < mazeSize) {
+                parseCell(element);
+                column++;
+            }
+        }
+    }
+
+    private void parseCell(byte element) {
+        int cell = row * mazeSize + column;
+        long bit = 1L << cell;
+
+        // fresh planes are all walls, so only the other cells need a bit
+        if (element == MazeGrid.FREE) {
+            walkable[cell >>> 6] |= bit;
+            numAgentMoves++;
+        }
+        else if (element == MazeGrid.EXIT) {
+            walkable[cell >>> 6] |= bit;
+            maze.addExit(cell);
+            numAgentMoves++;
+        }
+        else if (element == MazeGrid.ENTRANCE) {
+            maze.setCell(row, column, MazeGrid.ENTRANCE);
+        }
+    }
+
+    private void endHeader() throws IOException {
+        if (mazeSize <= 0 || mazeSize > MazeGrid.MAX_SIZE) {
+            throw new IOException("invalid maze size header, sides go up to " + MazeGrid.MAX_SIZE);
+        }
+        inHeader = false;
+        maze = new MazeGrid(mazeSize);
+        walkable = maze.getWalkablePlane();
+    }
+}
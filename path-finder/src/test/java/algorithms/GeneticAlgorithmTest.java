@@ -2,8 +2,33 @@ package algorithms;
 
 // built-in dependencies
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
+// external dependencies
+import algorithms.genetic.AdaptiveControl;
+import algorithms.genetic.Agent;
+import algorithms.genetic.CrossoverPredictor;
+import algorithms.genetic.GeneticAlgorithm;
+import algorithms.genetic.Population;
+import algorithms.genetic.PopulationCheckpoint;
+import algorithms.genetic.RandomStreams;
+import algorithms.genetic.SeedingStrategy;
+import algorithms.genetic.StreamRandom;
+import algorithms.genetic.island.IslandModel;
+import algorithms.genetic.island.MigrationCoordinator;
+import algorithms.genetic.island.MigrationTopology;
+import algorithms.genetic.island.SocketMigrationChannel;
+import org.javatuples.Pair;
+import logs.Logger;
+import logs.TraceReader;
+import logs.Tracer;
+import maze.MazeGrid;
+
 /**
  * Unit test for GeneticAlgorithm class.
  */
@@ -15,7 +40,29 @@ public class GeneticAlgorithmTest {
     @Test
     public void testHeuristicFunction()
     {
-        System.out.println("Not implemented yet :(");
+        char[][] maze = {
+                {'E', '1', '0'},
+                {'0', '1', '0'},
+                {'0', '0', 'S'}
+        };
+        Population population = new Population("test", 1, 25);
+        Agent agent = population.getAgents().get(0);
+
+        // S, E (wall), SE, E reaches the exit; moves past the first word stay unused
+        int[] moves = {1, 2, 6, 2};
+        for (int move = 0; move < 25; move++) {
+            agent.setMove(move, move < moves.length ? moves[move] : 7);
+        }
+        assertEquals(6, agent.getMove(2));
+        assertEquals(7, agent.getMove(22));
+        assertEquals("SW", Agent.MOVE_NAMES[agent.getMove(24)]);
+
+        new GeneticAlgorithm(1, 1, 0, 0).heuristicFunction(population, MazeGrid.fromChars(maze, 3));
+
+        assertTrue(agent.foundWayOut());
+        assertEquals(5, agent.getScore());
+        assertEquals(2, agent.getX());
+        assertEquals(2, agent.getY());
     }
 
     /**
@@ -24,7 +71,33 @@ public class GeneticAlgorithmTest {
     @Test
     public void testElitismAlgorithm()
     {
-        System.out.println("Not implemented yet :(");
+        Logger.getInstance().setLoggerObject(System.getProperty("java.io.tmpdir"));
+
+        char[][] maze = {
+                {'E', '0', '0'},
+                {'0', '1', '0'},
+                {'0', '0', 'S'}
+        };
+        Population population = new Population("test", 3, 4);
+        population.start(0, 0, new RandomStreams(3));
+
+        // only agent 2 walks S, S, E, E to the exit
+        int[] moves = {1, 1, 2, 2};
+        Agent bestAgent = population.getAgents().get(2);
+        for (int move = 0; move < moves.length; move++) {
+            bestAgent.setMove(move, moves[move]);
+        }
+
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(1, 3, 0, 0);
+        geneticAlgorithm.heuristicFunction(population, MazeGrid.fromChars(maze, 3));
+        Agent eliteAgent = geneticAlgorithm.elitismAlgorithm(population);
+
+        // the elite is copied into slot 0 of the bred generation, which becomes current on swap
+        assertTrue(eliteAgent == population.getNextAgents().get(0));
+        assertArrayEquals(bestAgent.getMoves(), eliteAgent.getMoves());
+
+        population.swap();
+        assertTrue(eliteAgent == population.getAgents().get(0));
     }
 
     /**
@@ -33,6 +106,421 @@ public class GeneticAlgorithmTest {
     @Test
     public void testTournamentAlgorithm()
     {
-        System.out.println("Not implemented yet :(");
+        Population population = new Population("test", 4, 21);
+        for (Agent agent : population.getAgents()) {
+            agent.updateScore(10 * (agent.getIdentifier() + 1));
+        }
+        Agent bestAgent = population.getAgents().get(0);
+
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(1, 4, 10, 1, 1, 7);
+        geneticAlgorithm.setTournamentSize(64);
+        StreamRandom random = new StreamRandom(7);
+
+        // a large tournament finds the best agent, unless that one is excluded
+        assertEquals(bestAgent, geneticAlgorithm.tournamentAlgorithm(population, null, random));
+        assertEquals(population.getAgents().get(1), geneticAlgorithm.tournamentAlgorithm(population, bestAgent, random));
+    }
+
+    /**
+     * Word-level uniform crossover must take every move from one of the two parents
+     */
+    @Test
+    public void testUniformCrossover()
+    {
+        Population population = new Population("test", 3, 100);
+        population.start(0, 0, new RandomStreams(11));
+
+        Agent father = population.getAgents().get(0);
+        Agent mother = population.getAgents().get(1);
+        Agent child = population.getAgents().get(2);
+        GeneticAlgorithm.uniformCrossover(child, father, mother, new StreamRandom(11));
+
+        int fromFather = 0;
+        int fromMother = 0;
+        for (int move = 0; move < 100; move++) {
+            assertTrue(child.getMove(move) == father.getMove(move) || child.getMove(move) == mother.getMove(move));
+            if (child.getMove(move) == father.getMove(move)) fromFather++;
+            if (child.getMove(move) == mother.getMove(move)) fromMother++;
+        }
+        assertTrue(fromFather > 20 && fromMother > 20);
+    }
+
+    /**
+     * Parallel fitness evaluation must give the sequential scores
+     */
+    @Test
+    public void testParallelHeuristicFunction()
+    {
+        int mazeSize = 30;
+        int numAgentMoves = 200;
+        Random random = new Random(11);
+        MazeGrid maze = new MazeGrid(mazeSize);
+
+        for (int x = 0; x < mazeSize; x++) {
+            for (int y = 0; y < mazeSize; y++) {
+                maze.setCell(x, y, random.nextInt(4) == 0 ? MazeGrid.WALL : MazeGrid.FREE);
+            }
+        }
+        maze.setCell(29, 29, MazeGrid.EXIT);
+
+        Population sequential = new Population("sequential", 64, numAgentMoves);
+        Population parallel = new Population("parallel", 64, numAgentMoves);
+
+        for (int agentId = 0; agentId < 64; agentId++) {
+            Agent sequentialAgent = sequential.getAgents().get(agentId);
+            Agent parallelAgent = parallel.getAgents().get(agentId);
+
+            for (int move = 0; move < numAgentMoves; move++) {
+                int direction = random.nextInt(Agent.NUM_POSSIBLE_MOVES);
+                sequentialAgent.setMove(move, direction);
+                parallelAgent.setMove(move, direction);
+            }
+        }
+
+        new GeneticAlgorithm(1, 64, 0, 0, 1).heuristicFunction(sequential, maze);
+        GeneticAlgorithm parallelAlgorithm = new GeneticAlgorithm(1, 64, 0, 0, 4);
+        parallelAlgorithm.heuristicFunction(parallel, maze);
+        parallelAlgorithm.close();
+
+        for (int agentId = 0; agentId < 64; agentId++) {
+            Agent sequentialAgent = sequential.getAgents().get(agentId);
+            Agent parallelAgent = parallel.getAgents().get(agentId);
+
+            assertEquals(sequentialAgent.getScore(), parallelAgent.getScore());
+            assertEquals(sequentialAgent.foundWayOut(), parallelAgent.foundWayOut());
+            assertEquals(sequentialAgent.getCoordinates(), parallelAgent.getCoordinates());
+        }
+    }
+
+    /**
+     * The same seed must start the same population
+     */
+    @Test
+    public void testSeededStart()
+    {
+        Population first = new Population("first", 10, 100);
+        Population second = new Population("second", 10, 100);
+
+        first.start(0, 0, new RandomStreams(42));
+        second.start(0, 0, new RandomStreams(42));
+
+        for (int agentId = 0; agentId < 10; agentId++) {
+            assertArrayEquals(first.getAgents().get(agentId).getMoves(), second.getAgents().get(agentId).getMoves());
+        }
+    }
+
+    /**
+     * Incremental evaluation must match a full re-evaluation, generation after generation
+     */
+    @Test
+    public void testIncrementalHeuristicFunction()
+    {
+        Logger.getInstance().setLoggerObject(System.getProperty("java.io.tmpdir"));
+
+        int mazeSize = 20;
+        int numAgents = 30;
+        int numAgentMoves = 300;
+        Random random = new Random(13);
+        MazeGrid maze = new MazeGrid(mazeSize);
+
+        for (int x = 0; x < mazeSize; x++) {
+            for (int y = 0; y < mazeSize; y++) {
+                maze.setCell(x, y, random.nextInt(5) == 0 ? MazeGrid.WALL : MazeGrid.FREE);
+            }
+        }
+        maze.setCell(12, 15, MazeGrid.EXIT);
+
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(1, numAgents, 30, 1, 1, 17);
+        Population population = new Population("test", numAgents, numAgentMoves);
+        population.start(0, 0, new RandomStreams(17));
+
+        for (int generation = 0; generation < 20; generation++) {
+            assertIncrementalMatchesFull(geneticAlgorithm, population, maze);
+
+            // late edits on evaluated agents resume from a checkpoint
+            Agent editedAgent = population.getAgents().get(1 + generation);
+            editedAgent.setMove(numAgentMoves - 1 - 13 * generation, generation % Agent.NUM_POSSIBLE_MOVES);
+            assertIncrementalMatchesFull(geneticAlgorithm, population, maze);
+
+            geneticAlgorithm.elitismAlgorithm(population);
+            geneticAlgorithm.crossoverAlgorithm(population, generation);
+            population.mutate(30, 1, new StreamRandom(generation));
+            population.swap();
+        }
+    }
+
+    /**
+     * An exit reached on the last move before a checkpoint must be saved in that checkpoint
+     */
+    @Test
+    public void testIncrementalHeuristicFunctionExitAtCheckpoint()
+    {
+        char[][] maze = {
+                {'E', '0', '0'},
+                {'0', 'S', '0'},
+                {'0', '0', '0'}
+        };
+        MazeGrid mazeGrid = MazeGrid.fromChars(maze, 3);
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(1, 1, 0, 0);
+        Population population = new Population("test", 1, 200);
+        Agent agent = population.getAgents().get(0);
+
+        // out of bounds up to move 63, then SE onto the exit
+        for (int move = 0; move < 200; move++) {
+            agent.setMove(move, move == Agent.CHECKPOINT_INTERVAL - 1 ? 6 : 0);
+        }
+        geneticAlgorithm.heuristicFunction(population, mazeGrid);
+        assertTrue(agent.foundWayOut());
+
+        // an edit past the exit resumes from the checkpoint right after it
+        agent.setMove(100, 1);
+        assertIncrementalMatchesFull(geneticAlgorithm, population, mazeGrid);
+        assertTrue(agent.foundWayOut());
+    }
+
+    /**
+     * Islands on a fully connected topology must find the way out of a small maze
+     */
+    @Test
+    public void testIslandModel()
+    {
+        Logger.getInstance().setLoggerObject(System.getProperty("java.io.tmpdir"));
+
+        char[][] maze = {
+                {'E', '0', '0', '0', '0'},
+                {'0', '1', '1', '1', '0'},
+                {'0', '0', '0', '1', '0'},
+                {'1', '1', '0', '1', '0'},
+                {'0', '0', '0', '0', 'S'}
+        };
+        assertArrayEquals(new int[]{0, 1, 3}, MigrationTopology.FULL.targets(2, 4));
+        assertArrayEquals(new int[]{0}, MigrationTopology.RING.targets(3, 4));
+
+        IslandModel islandModel = new IslandModel(3, 2000, 20, 60, 10, 5, 2, MigrationTopology.FULL, 5);
+        Pair<Integer, Integer> solution = islandModel.findPath(MazeGrid.fromChars(maze, 5), 20);
+
+        assertEquals(Pair.with(4, 4), solution);
+    }
+
+    /**
+     * Worker islands connected through a coordinator over loopback must report the way out
+     */
+    @Test
+    public void testSocketIslandModel() throws Exception
+    {
+        Logger.getInstance().setLoggerObject(System.getProperty("java.io.tmpdir"));
+
+        char[][] maze = {
+                {'E', '0', '0', '0', '0'},
+                {'0', '1', '1', '1', '0'},
+                {'0', '0', '0', '1', '0'},
+                {'1', '1', '0', '1', '0'},
+                {'0', '0', '0', '0', 'S'}
+        };
+        final MazeGrid mazeGrid = MazeGrid.fromChars(maze, 5);
+
+        final MigrationCoordinator coordinator = new MigrationCoordinator(2, 5);
+        coordinator.bind(0);
+
+        Thread[] workers = new Thread[2];
+        for (int worker = 0; worker < workers.length; worker++) {
+            workers[worker] = new Thread(() -> {
+                try {
+                    SocketMigrationChannel channel = SocketMigrationChannel.connect("localhost", coordinator.getPort(),
+                            mazeGrid.fingerprint(), Agent.numWords(20));
+                    IslandModel islandModel = new IslandModel(channel.getNumIslands(), 2000, 20, 60, 10, 5, 2,
+                            MigrationTopology.RING, channel.getSeed());
+                    islandModel.setLocalIslands(channel.getIsland(), 1);
+                    islandModel.setMigrationChannel(channel);
+                    islandModel.findPath(mazeGrid, 20);
+                    channel.finish((int) islandModel.getTotalGenerations());
+                    channel.close();
+                }
+                catch (java.io.IOException exception) {
+                    throw new RuntimeException(exception);
+                }
+            });
+            workers[worker].start();
+        }
+
+        coordinator.run();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertTrue(coordinator.isSolved());
+        assertEquals(4, coordinator.getExitX());
+        assertEquals(4, coordinator.getExitY());
+    }
+
+    /**
+     * A migrant bred for a maze of another length must not be copied into an agent
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMigrantOfAnotherLength()
+    {
+        Population population = new Population("test", 2, 50);
+        population.getAgents().get(1).copyMoves(new long[Agent.numWords(20)]);
+    }
+
+    /**
+     * A converged population that stops improving must get more mutation, then a restart, then a stop
+     */
+    @Test
+    public void testAdaptiveControl()
+    {
+        char[][] maze = {
+                {'E', '1', '0'},
+                {'0', '1', '0'},
+                {'0', '0', 'S'}
+        };
+        MazeGrid mazeGrid = MazeGrid.fromChars(maze, 3);
+
+        // identical genomes: no diversity and no progress after the first generation
+        Population population = new Population("test", 4, 21);
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(1, 4, 10, 1, 1, 3);
+        geneticAlgorithm.heuristicFunction(population, mazeGrid);
+
+        AdaptiveControl adaptiveControl = new AdaptiveControl(10, 1, true, 3, 1);
+        assertEquals(AdaptiveControl.Action.CONTINUE, adaptiveControl.update(population));
+        assertEquals(0.0, adaptiveControl.getDiversity(), 0.0);
+
+        assertEquals(AdaptiveControl.Action.CONTINUE, adaptiveControl.update(population));
+        assertEquals(20, adaptiveControl.getAgentMutationRatio());
+        assertEquals(2, adaptiveControl.getMovementMutationRatio());
+
+        assertEquals(AdaptiveControl.Action.CONTINUE, adaptiveControl.update(population));
+        assertEquals(AdaptiveControl.Action.RESTART, adaptiveControl.update(population));
+        assertEquals(10, adaptiveControl.getAgentMutationRatio());
+
+        assertEquals(AdaptiveControl.Action.CONTINUE, adaptiveControl.update(population));
+        assertEquals(AdaptiveControl.Action.CONTINUE, adaptiveControl.update(population));
+        assertEquals(AdaptiveControl.Action.STOP, adaptiveControl.update(population));
+
+        // a restart keeps the elite and redraws the others
+        population.restart(4, new RandomStreams(3));
+        assertTrue(population.getAgents().get(0).isEvaluated());
+        assertTrue(Agent.commonPrefix(population.getAgents().get(0), population.getAgents().get(1)) < 21);
+    }
+
+    /**
+     * Random-walk seeding must only produce genomes that never bump into walls or leave the maze
+     */
+    @Test
+    public void testWalkSeeding()
+    {
+        char[][] maze = {
+                {'E', '0', '1', '0', '0'},
+                {'1', '0', '1', '0', '1'},
+                {'0', '0', '0', '0', '1'},
+                {'0', '1', '1', '0', '0'},
+                {'0', '0', '1', '1', 'S'}
+        };
+        MazeGrid mazeGrid = MazeGrid.fromChars(maze, 5);
+
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(1, 10, 10, 1, 1, 21);
+        geneticAlgorithm.setSeeding(SeedingStrategy.WALK);
+        Population population = new Population("test", 10, 30);
+        geneticAlgorithm.startPopulation(population, mazeGrid);
+        geneticAlgorithm.heuristicFunction(population, mazeGrid);
+
+        // no penalty at all: 0 once out, or only the +1000 of not getting out
+        for (Agent agent : population.getAgents()) {
+            assertEquals(agent.foundWayOut() ? 0 : 1000, agent.getScore());
+        }
+    }
+
+    /**
+     * A checkpoint must read back the genomes, generation and seed it was written with
+     */
+    @Test
+    public void testPopulationCheckpoint() throws Exception
+    {
+        Logger.getInstance().setLoggerObject(System.getProperty("java.io.tmpdir"));
+
+        Population population = new Population("test", 6, 50);
+        population.start(0, 0, new RandomStreams(13));
+
+        java.io.File file = java.io.File.createTempFile("population", ".ckpt");
+        file.deleteOnExit();
+
+        PopulationCheckpoint checkpoint = new PopulationCheckpoint(file.getPath(), 5);
+        assertTrue(!checkpoint.save(population, 7, 13, 42));
+        assertTrue(checkpoint.save(population, 10, 13, 42));
+        checkpoint.close();
+
+        PopulationCheckpoint.Snapshot snapshot = PopulationCheckpoint.read(file.getPath());
+        assertEquals(13, snapshot.getSeed());
+        assertEquals(10, snapshot.getGeneration());
+        assertEquals(6, snapshot.getNumAgents());
+        assertEquals(50, snapshot.getNumAgentMoves());
+        assertEquals(42, snapshot.getMazeFingerprint());
+        assertArrayEquals(population.getGenomes(), snapshot.getGenomes());
+    }
+
+    /**
+     * A traced run must read back the very genomes it scored, bred children included
+     */
+    @Test
+    public void testTracedRun() throws Exception
+    {
+        Logger.getInstance().setLoggerObject(System.getProperty("java.io.tmpdir"));
+
+        // the exit is walled off, so every generation is bred and traced
+        char[][] maze = {
+                {'E', '0', '0', '0', '0'},
+                {'0', '1', '0', '1', '0'},
+                {'0', '0', '0', '0', '0'},
+                {'0', '1', '0', '1', '1'},
+                {'0', '0', '0', '1', 'S'}
+        };
+        MazeGrid mazeGrid = MazeGrid.fromChars(maze, 5);
+
+        java.io.File file = java.io.File.createTempFile("run", ".trace");
+        file.deleteOnExit();
+
+        Tracer tracer = Tracer.getInstance();
+        tracer.setTraceObject(file.getPath(), 5, 17);
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(6, 8, 50, 10, 1, 17);
+        geneticAlgorithm.findPath(mazeGrid, 30);
+        tracer.close();
+
+        int numGenerations = 0;
+        try (TraceReader traceReader = new TraceReader(file.getPath())) {
+            traceReader.setPredictor(new CrossoverPredictor(traceReader.getSeed()));
+
+            while (traceReader.next()) {
+                long[] genomes = traceReader.getGenomes();
+
+                // the replayed agents score what the run scored
+                for (int agent = 0; agent < traceReader.getNumAgents(); agent++) {
+                    Agent replayedAgent = new Agent(agent, traceReader.getNumAgentMoves(),
+                            Arrays.copyOf(genomes, genomes.length), agent * traceReader.getNumWordsPerAgent());
+                    geneticAlgorithm.evaluateAgent(replayedAgent, mazeGrid);
+                    assertEquals(traceReader.getScores()[agent], replayedAgent.getScore());
+                }
+                numGenerations++;
+            }
+        }
+        assertEquals(6, numGenerations);
+    }
+
+    private void assertIncrementalMatchesFull(GeneticAlgorithm geneticAlgorithm, Population population, MazeGrid maze) {
+        int numAgents = population.getNumAgents();
+        int[] scores = new int[numAgents];
+        boolean[] foundWayOuts = new boolean[numAgents];
+
+        geneticAlgorithm.heuristicFunction(population, maze);
+        for (Agent agent : population.getAgents()) {
+            scores[agent.getIdentifier()] = agent.getScore();
+            foundWayOuts[agent.getIdentifier()] = agent.foundWayOut();
+            agent.markDirty(0);
+        }
+
+        geneticAlgorithm.heuristicFunction(population, maze);
+        for (Agent agent : population.getAgents()) {
+            assertEquals(scores[agent.getIdentifier()], agent.getScore());
+            assertEquals(foundWayOuts[agent.getIdentifier()], agent.foundWayOut());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,196 @@
+package algorithms;
+
+// built-in dependencies
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+// external dependencies
+import algorithms.hierarchical.HierarchicalAStarAlgorithm;
+import logs.Logger;
+import maze.MazeGrid;
+import org.javatuples.Pair;
+
+/**
+ * Unit test for the grid path finders.
+ */
+public class PathFinderTest {
+
+    @BeforeClass
+    public static void setUpLogger()
+    {
+        Logger.getInstance().setLoggerObject(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * A* shortest path on a small maze
+     */
+    @Test
+    public void testAStarFindPath()
+    {
+        char[][] maze = {
+                {'E', '0', '0', '0'},
+                {'1', '1', '1', '0'},
+                {'0', '0', '0', '0'},
+                {'0', '1', '1', 'S'}
+        };
+        List<Pair<Integer, Integer>> path = new AStarAlgorithm().findPath(
+                MazeGrid.fromChars(maze, 4), new int[]{0, 0}, new int[]{3, 3});
+
+        assertEquals(Pair.with(0, 0), path.get(0));
+        assertEquals(Pair.with(3, 3), path.get(path.size() - 1));
+        assertEquals(54, pathCost(path));
+    }
+
+    /**
+     * Jump point search must match A* path costs
+     */
+    @Test
+    public void testJumpPointSearchMatchesAStar()
+    {
+        assertMatchesAStar(new JumpPointSearchAlgorithm());
+    }
+
+    /**
+     * Bidirectional A* must match A* path costs
+     */
+    @Test
+    public void testBidirectionalAStarMatchesAStar()
+    {
+        assertMatchesAStar(new BidirectionalAStarAlgorithm());
+    }
+
+    /**
+     * Hierarchical A* must find a valid path whenever A* does
+     */
+    @Test
+    public void testHierarchicalAStarFindsPath()
+    {
+        Random random = new Random(11);
+        AStarAlgorithm aStarAlgorithm = new AStarAlgorithm();
+        HierarchicalAStarAlgorithm hierarchicalAlgorithm = new HierarchicalAStarAlgorithm(8);
+
+        for (int query = 0; query < 100; query++) {
+            int mazeSize = 5 + random.nextInt(40);
+            MazeGrid maze = randomMaze(random, mazeSize);
+            int[] source = {random.nextInt(mazeSize), random.nextInt(mazeSize)};
+            int[] target = {random.nextInt(mazeSize), random.nextInt(mazeSize)};
+            maze.setCell(target[0], target[1], MazeGrid.EXIT);
+
+            List<Pair<Integer, Integer>> expected = aStarAlgorithm.findPath(maze, source, target);
+            List<Pair<Integer, Integer>> actual = hierarchicalAlgorithm.findPath(maze, source, target);
+
+            assertEquals(expected.isEmpty(), actual.isEmpty());
+            assertTrue(pathCost(expected) <= pathCost(actual));
+            assertTrue(isConnected(maze, actual));
+        }
+    }
+
+    /**
+     * Flow field paths must match A* path costs
+     */
+    @Test
+    public void testFlowFieldMatchesAStar()
+    {
+        assertMatchesAStar(new FlowFieldAlgorithm());
+    }
+
+    /**
+     * A distance field whose cell indexes would overflow an int must be rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistanceFieldRejectsOversizedMaze()
+    {
+        new DistanceField(MazeGrid.MAX_SIZE + 1);
+    }
+
+    /**
+     * Path cache hits, misses and invalidation
+     */
+    @Test
+    public void testCachedPathFinder()
+    {
+        MazeGrid maze = randomMaze(new Random(3), 20);
+        maze.setCell(19, 19, MazeGrid.EXIT);
+        int[] source = {0, 0};
+        int[] target = {19, 19};
+        CachedPathFinder cachedPathFinder = new CachedPathFinder(new AStarAlgorithm(), 2);
+
+        List<Pair<Integer, Integer>> first = cachedPathFinder.findPath(maze, source, target);
+        List<Pair<Integer, Integer>> second = cachedPathFinder.findPath(maze, source, target);
+        assertTrue(first == second);
+        assertEquals(1, cachedPathFinder.getHits());
+        assertEquals(1, cachedPathFinder.getMisses());
+
+        // editing the maze changes its fingerprint and drops the stale entry
+        maze.setCell(10, 10, maze.isWalkable(10, 10) ? MazeGrid.WALL : MazeGrid.FREE);
+        cachedPathFinder.findPath(maze, source, target);
+        assertEquals(1, cachedPathFinder.size());
+        assertEquals(2, cachedPathFinder.getMisses());
+
+        cachedPathFinder.findPath(maze, source, new int[]{10, 11});
+        cachedPathFinder.findPath(maze, source, new int[]{5, 5});
+        assertEquals(2, cachedPathFinder.size());
+        assertEquals(4, cachedPathFinder.getMisses());
+
+        cachedPathFinder.invalidate(maze);
+        assertEquals(0, cachedPathFinder.size());
+    }
+
+    private void assertMatchesAStar(PathFinder pathFinder) {
+        Random random = new Random(7);
+        AStarAlgorithm aStarAlgorithm = new AStarAlgorithm();
+
+        for (int query = 0; query < 100; query++) {
+            int mazeSize = 5 + random.nextInt(30);
+            MazeGrid maze = randomMaze(random, mazeSize);
+            int[] source = {random.nextInt(mazeSize), random.nextInt(mazeSize)};
+            int[] target = {random.nextInt(mazeSize), random.nextInt(mazeSize)};
+            maze.setCell(target[0], target[1], MazeGrid.EXIT);
+
+            List<Pair<Integer, Integer>> expected = aStarAlgorithm.findPath(maze, source, target);
+            List<Pair<Integer, Integer>> actual = pathFinder.findPath(maze, source, target);
+
+            assertEquals(expected.isEmpty(), actual.isEmpty());
+            assertEquals(pathCost(expected), pathCost(actual));
+            assertTrue(isConnected(maze, actual));
+        }
+    }
+
+    private MazeGrid randomMaze(Random random, int mazeSize) {
+        MazeGrid maze = new MazeGrid(mazeSize);
+        double wallRatio = random.nextDouble() * 0.4;
+
+        for (int x = 0; x < mazeSize; x++) {
+            for (int y = 0; y < mazeSize; y++) {
+                maze.setCell(x, y, random.nextDouble() < wallRatio ? MazeGrid.WALL : MazeGrid.FREE);
+            }
+        }
+        return maze;
+    }
+
+    private int pathCost(List<Pair<Integer, Integer>> path) {
+        int cost = 0;
+        for (int cell = 1; cell < path.size(); cell++) {
+            cost += AStarAlgorithm.heuristicFunction(
+                    path.get(cell - 1).getValue0(), path.get(cell - 1).getValue1(),
+                    path.get(cell).getValue0(), path.get(cell).getValue1());
+        }
+        return cost;
+    }
+
+    private boolean isConnected(MazeGrid maze, List<Pair<Integer, Integer>> path) {
+        for (int cell = 1; cell < path.size(); cell++) {
+            int dx = Math.abs(path.get(cell).getValue0() - path.get(cell - 1).getValue0());
+            int dy = Math.abs(path.get(cell).getValue1() - path.get(cell - 1).getValue1());
+
+            if (dx > 1 || dy > 1 || dx + dy == 0) return false;
+            if (!maze.isWalkable(path.get(cell).getValue0(), path.get(cell).getValue1())) return false;
+        }
+        return true;
+    }
+}
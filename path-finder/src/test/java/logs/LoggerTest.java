@@ -0,0 +1,93 @@
+package logs;
+
+// built-in dependencies
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Unit test for Logger class.
+ */
+public class LoggerTest {
+
+    /**
+     * The asynchronous logger must write every message, in order, when it blocks on a full buffer
+     */
+    @Test
+    public void testAsyncBlockingLog() throws Exception
+    {
+        File logDirectory = Files.createTempDirectory("logger").toFile();
+        Logger logger = Logger.getInstance();
+        logger.setLoggerObject(logDirectory.getPath());
+
+        // a buffer far smaller than what is logged, and smaller than some messages
+        logger.setAsync(64, OverflowPolicy.BLOCK);
+
+        StringBuilder expected = new StringBuilder();
+        for (int message = 0; message < 2000; message++) {
+            String line = "Current cell= [" + message + ", " + message % 7 + "]\n";
+            if (message % 100 == 0) line += new String(new char[150]).replace('\0', 'x') + "\n";
+
+            logger.log(line);
+            expected.append(line);
+        }
+        logger.close();
+
+        String logged = new String(Files.readAllBytes(new File(logDirectory, "path-finder-logs.txt").toPath()),
+                StandardCharsets.UTF_8);
+        assertEquals(expected.toString(), logged);
+    }
+
+    /**
+     * The dropping policy must never block and must report how many messages it dropped
+     */
+    @Test
+    public void testAsyncDroppingLog() throws Exception
+    {
+        File logDirectory = Files.createTempDirectory("logger").toFile();
+        Logger logger = Logger.getInstance();
+        logger.setLoggerObject(logDirectory.getPath());
+        logger.setAsync(16, OverflowPolicy.DROP);
+
+        logger.log("short\n");
+        logger.log("a message longer than the whole buffer\n");
+        logger.close();
+
+        String logged = new String(Files.readAllBytes(new File(logDirectory, "path-finder-logs.txt").toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(logged.startsWith("short\n"));
+        assertTrue(logged.contains("1 messages dropped"));
+    }
+
+    /**
+     * Messages below the logger level must not be built, nor written
+     */
+    @Test
+    public void testLogLevels() throws Exception
+    {
+        File logDirectory = Files.createTempDirectory("logger").toFile();
+        Logger logger = Logger.getInstance();
+        logger.setLoggerObject(logDirectory.getPath());
+        logger.setLevel(LogLevel.INFO);
+
+        final int[] numBuilt = {0};
+        logger.log(LogLevel.DEBUG, () -> "debug " + ++numBuilt[0] + "\n");
+        logger.log(LogLevel.INFO, () -> "info " + ++numBuilt[0] + "\n");
+        logger.log(LogLevel.TRACE, "trace\n");
+        logger.log(LogLevel.WARN, "warn\n");
+
+        // unleveled messages are INFO
+        logger.setLevel(LogLevel.WARN);
+        logger.log("info\n");
+        logger.setLevel(LogLevel.INFO);
+        logger.close();
+
+        assertEquals(1, numBuilt[0]);
+        assertEquals("info 1\nwarn\n", new String(Files.readAllBytes(
+                new File(logDirectory, "path-finder-logs.txt").toPath()), StandardCharsets.UTF_8));
+    }
+}
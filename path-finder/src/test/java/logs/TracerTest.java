@@ -0,0 +1,88 @@
+package logs;
+
+// built-in dependencies
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Unit test for Tracer and TraceReader classes.
+ */
+public class TracerTest {
+
+    /**
+     * Generations and searches read back from a trace must be the ones traced
+     */
+    @Test
+    public void testTraceRoundTrip() throws Exception
+    {
+        File traceFile = Files.createTempFile("run", ".trace").toFile();
+        Tracer tracer = Tracer.getInstance();
+        tracer.setTraceObject(traceFile.getPath(), 12, 42);
+
+        // children are predicted as a copy of their father
+        GenomePredictor fatherPredictor = (generation, agent, parentGenomes, fatherOffset, motherOffset,
+                                           numWords, prediction, predictionOffset) ->
+                System.arraycopy(parentGenomes, fatherOffset, prediction, predictionOffset, numWords);
+        tracer.setPredictor(fatherPredictor);
+
+        long[] firstGenomes = {1L, -2L, 3L, Long.MAX_VALUE, 5L, 6L};
+        int[] firstScores = {700, 35, 1200};
+        tracer.traceGeneration(0, 40, 2, firstGenomes, firstScores, null, null);
+
+        // only the second agent changes, and only in one word
+        long[] secondGenomes = Arrays.copyOf(firstGenomes, firstGenomes.length);
+        secondGenomes[3] = Long.MIN_VALUE;
+        int[] secondScores = {700, 0, 1180};
+        tracer.traceGeneration(1, 40, 2, secondGenomes, secondScores, null, null);
+
+        // bred: the elite stays, a child of the third agent is mutated in one word, another is its copy
+        long[] thirdGenomes = {3L, Long.MIN_VALUE, 5L, -9L, 5L, 6L};
+        int[] thirdScores = {0, 40, 1180};
+        int[] fathers = {1, 2, 2};
+        int[] mothers = {1, 0, 1};
+        tracer.traceGeneration(2, 40, 2, thirdGenomes, thirdScores, fathers, mothers);
+
+        int[] expandedCells = {0, 13, 14, 2, 143};
+        tracer.traceSearch(0, 143, Arrays.copyOf(expandedCells, 8), expandedCells.length);
+        tracer.close();
+
+        try (TraceReader traceReader = new TraceReader(traceFile.getPath())) {
+            assertEquals(12, traceReader.getMazeSize());
+            assertEquals(42, traceReader.getSeed());
+
+            assertTrue(traceReader.next());
+            assertEquals(Tracer.GENERATION, traceReader.getRecordType());
+            assertEquals(0, traceReader.getGeneration());
+            assertArrayEquals(firstGenomes, traceReader.getGenomes());
+            assertArrayEquals(firstScores, traceReader.getScores());
+
+            assertTrue(traceReader.next());
+            assertEquals(1, traceReader.getGeneration());
+            assertEquals(1, traceReader.getNumStoredWords());
+            assertArrayEquals(secondGenomes, traceReader.getGenomes());
+            assertArrayEquals(secondScores, traceReader.getScores());
+
+            traceReader.setPredictor(fatherPredictor);
+            assertTrue(traceReader.next());
+            assertEquals(2, traceReader.getGeneration());
+            assertEquals(1, traceReader.getNumStoredWords());
+            assertArrayEquals(thirdGenomes, traceReader.getGenomes());
+            assertArrayEquals(thirdScores, traceReader.getScores());
+
+            assertTrue(traceReader.next());
+            assertEquals(Tracer.SEARCH, traceReader.getRecordType());
+            assertEquals(143, traceReader.getTargetCell());
+            assertArrayEquals(expandedCells, Arrays.copyOf(traceReader.getExpandedCells(),
+                    traceReader.getNumExpandedCells()));
+
+            assertFalse(traceReader.next());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package maze;
+
+// built-in dependencies
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Unit test for the memory-mapped maze loader.
+ */
+public class MazeLoaderTest {
+
+    /**
+     * Spaced and unspaced rows, CRLF endings and agent moves counted in the same pass
+     */
+    @Test
+    public void testLoadMaze() throws IOException
+    {
+        File mazeFile = File.createTempFile("maze", ".txt");
+        mazeFile.deleteOnExit();
+        Files.write(mazeFile.toPath(), "3\r\nE 0 1\r\n01S\r\n1 0 0\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        MazeLoader mazeLoader = new MazeLoader();
+        MazeGrid maze = mazeLoader.load(mazeFile.getPath());
+
+        assertEquals(3, maze.size());
+        assertEquals(5, mazeLoader.getNumAgentMoves());
+        assertEquals(5, maze.countFreeCells());
+        assertEquals('E', maze.charAt(0, 0));
+        assertEquals('1', maze.charAt(0, 2));
+        assertEquals('S', maze.charAt(1, 2));
+        assertEquals('0', maze.charAt(2, 2));
+        assertTrue(maze.isWalkable(0, 0));
+        assertEquals(mazeFile.length(), mazeLoader.getBytesRead());
+    }
+
+    /**
+     * Text to binary and back keeps every cell, across chunks and unaligned rows
+     */
+    @Test
+    public void testBinaryRoundTrip() throws IOException
+    {
+        Random random = new Random(5);
+        int mazeSize = 45;
+        MazeGrid maze = new MazeGrid(mazeSize);
+        char[] mazeObjects = {MazeGrid.FREE, MazeGrid.WALL, MazeGrid.EXIT};
+
+        for (int x = 0; x < mazeSize; x++) {
+            for (int y = 0; y < mazeSize; y++) {
+                maze.setCell(x, y, mazeObjects[random.nextInt(mazeObjects.length)]);
+            }
+        }
+        maze.setCell(0, 0, MazeGrid.ENTRANCE);
+        maze.setCell(44, 33, MazeGrid.ENTRANCE);
+
+        File binaryFile = File.createTempFile("maze", ".bin");
+        File textFile = File.createTempFile("maze", ".txt");
+        binaryFile.deleteOnExit();
+        textFile.deleteOnExit();
+
+        BinaryMazeFormat.write(maze, binaryFile.getPath(), 8);
+        MazeLoader mazeLoader = new MazeLoader();
+        MazeGrid binaryMaze = mazeLoader.load(binaryFile.getPath());
+        assertTrue(mazeLoader.isBinary());
+        assertEquals(maze.countFreeCells(), mazeLoader.getNumAgentMoves());
+
+        new MazeConverter().convert(binaryFile.getPath(), textFile.getPath(), 8);
+        MazeGrid textMaze = mazeLoader.load(textFile.getPath());
+
+        for (int x = 0; x < mazeSize; x++) {
+            for (int y = 0; y < mazeSize; y++) {
+                assertEquals(maze.charAt(x, y), binaryMaze.charAt(x, y));
+                assertEquals(maze.charAt(x, y), textMaze.charAt(x, y));
+            }
+        }
+        assertEquals(maze.fingerprint(), textMaze.fingerprint());
+    }
+}